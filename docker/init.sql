@@ -1 +1,2 @@
-CREATE SCHEMA IF NOT EXISTS app_schema;
\ No newline at end of file
+CREATE SCHEMA IF NOT EXISTS app_schema;
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA app_schema;
@@ -0,0 +1,41 @@
+package com.example.rest.benchmark;
+
+import com.example.rest.model.Client;
+import com.example.rest.model.Order;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Тестовые графы клиентов и заказов для бенчмарков.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<Client> clients(int clientCount, int ordersPerClient) {
+        List<Client> clients = new ArrayList<>(clientCount);
+        long orderId = 1;
+        Instant now = Instant.now();
+
+        for (long clientId = 1; clientId <= clientCount; clientId++) {
+            Client client = new Client(clientId, "Client " + clientId, new ArrayList<>(ordersPerClient), 0L);
+            for (int i = 0; i < ordersPerClient; i++, orderId++) {
+                client.addOrder(new Order(orderId, "Product " + orderId, BigDecimal.valueOf(orderId, 2),
+                        client, now, now, 0L));
+            }
+            clients.add(client);
+        }
+
+        return clients;
+    }
+
+    static List<Order> orders(List<Client> clients) {
+        return clients.stream()
+                .flatMap(client -> client.getOrders().stream())
+                .toList();
+    }
+}
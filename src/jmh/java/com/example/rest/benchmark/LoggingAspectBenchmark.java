@@ -0,0 +1,68 @@
+package com.example.rest.benchmark;
+
+import com.example.rest.aop.Loggable;
+import com.example.rest.aop.LoggingAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы {@link LoggingAspect} на вызов метода, помеченного {@link Loggable}:
+ * прямой вызов, вызов через прокси без советов и через прокси с аспектом.
+ * Цена самого аспекта - разница между двумя последними.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+    private Service plain;
+
+    private Service proxied;
+
+    private Service advised;
+
+    private long value;
+
+    @Setup
+    public void setUp() {
+        plain = new Service();
+
+        AspectJProxyFactory emptyFactory = new AspectJProxyFactory(new Service());
+        emptyFactory.setProxyTargetClass(true);
+        proxied = emptyFactory.getProxy();
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Service());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect(new SimpleMeterRegistry()));
+        advised = factory.getProxy();
+    }
+
+    @Benchmark
+    public long plainCall() {
+        return plain.increment(value++);
+    }
+
+    @Benchmark
+    public long proxiedCall() {
+        return proxied.increment(value++);
+    }
+
+    @Benchmark
+    public long advisedCall() {
+        return advised.increment(value++);
+    }
+
+    public static class Service {
+
+        @Loggable
+        public long increment(long value) {
+            return value + 1;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.rest.benchmark;
+
+import com.example.rest.utils.ConcurrentLongMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Память кучи на запись: {@link ConcurrentHashMap} с ключами {@link Long} против {@link ConcurrentLongMap}.
+ * Ключи 1..size, значение одно общее на все записи. Результат - вторичная метрика {@code bytesPerEntry}:
+ * прирост занятой кучи после полной сборки мусора, делённый на число записей. Время операции не показательно.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseParallelGC", "-Xmx4g"})
+public class LongMapFootprintBenchmark {
+
+    private static final Object VALUE = new Object();
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    private long heapBefore;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public double bytesPerEntry;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        heapBefore = usedHeap();
+    }
+
+    @Benchmark
+    public int concurrentHashMap(Footprint footprint) {
+        Map<Long, Object> map = new ConcurrentHashMap<>();
+        for (long id = 1; id <= size; id++) {
+            map.put(id, VALUE);
+        }
+
+        footprint.bytesPerEntry = (double) (usedHeap() - heapBefore) / size;
+        return map.size();
+    }
+
+    @Benchmark
+    public int concurrentLongMap(Footprint footprint) {
+        ConcurrentLongMap<Object> map = new ConcurrentLongMap<>();
+        for (long id = 1; id <= size; id++) {
+            map.put(id, VALUE);
+        }
+
+        footprint.bytesPerEntry = (double) (usedHeap() - heapBefore) / size;
+        return map.size();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
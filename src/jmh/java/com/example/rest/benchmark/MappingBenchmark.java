@@ -0,0 +1,100 @@
+package com.example.rest.benchmark;
+
+import com.example.rest.mapper.v1.ClientMapper;
+import com.example.rest.mapper.v1.OrderMapper;
+import com.example.rest.mapper.v2.ClientMapperV2;
+import com.example.rest.mapper.v2.OrderMapperV2;
+import com.example.rest.model.Client;
+import com.example.rest.model.Order;
+import com.example.rest.web.model.ClientListResponse;
+import com.example.rest.web.model.ClientResponse;
+import com.example.rest.web.model.OrderListResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ручные мапперы v1 против MapStruct v2 (вместе с {@code OrderMapperDelegate}).
+ * Мапперы v2 берутся из контекста, собранного сканированием пакета, как в приложении.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"100"})
+    public int clientCount;
+
+    @Param({"10", "1000"})
+    public int ordersPerClient;
+
+    private List<Client> clients;
+
+    private List<Order> orders;
+
+    private Client largestClient;
+
+    private ClientMapper clientMapperV1;
+
+    private OrderMapper orderMapperV1;
+
+    private ClientMapperV2 clientMapperV2;
+
+    private OrderMapperV2 orderMapperV2;
+
+    private AnnotationConfigApplicationContext context;
+
+    @Setup
+    public void setUp() {
+        clients = BenchmarkData.clients(clientCount, ordersPerClient);
+        orders = BenchmarkData.orders(clients);
+        largestClient = clients.get(0);
+
+        orderMapperV1 = new OrderMapper(null);
+        clientMapperV1 = new ClientMapper(orderMapperV1);
+
+        context = new AnnotationConfigApplicationContext("com.example.rest.mapper.v2");
+        clientMapperV2 = context.getBean(ClientMapperV2.class);
+        orderMapperV2 = context.getBean(OrderMapperV2.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ClientResponse clientV1() {
+        return clientMapperV1.clientToResponse(largestClient);
+    }
+
+    @Benchmark
+    public ClientResponse clientV2() {
+        return clientMapperV2.clientToResponse(largestClient);
+    }
+
+    @Benchmark
+    public ClientListResponse clientListV1() {
+        return clientMapperV1.clientListToClientResponse(clients);
+    }
+
+    @Benchmark
+    public ClientListResponse clientListV2() {
+        return clientMapperV2.clientListToClientResponseList(clients);
+    }
+
+    @Benchmark
+    public OrderListResponse orderListV1() {
+        return orderMapperV1.orderListToOrderListResponse(orders);
+    }
+
+    @Benchmark
+    public OrderListResponse orderListV2() {
+        return orderMapperV2.orderListToOrderListResponse(orders);
+    }
+}
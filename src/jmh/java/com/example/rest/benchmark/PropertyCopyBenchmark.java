@@ -0,0 +1,83 @@
+package com.example.rest.benchmark;
+
+import com.example.rest.model.Client;
+import com.example.rest.model.Order;
+import com.example.rest.utils.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BeanUtils#copyNonNullProperties} против прежней рефлексивной реализации.
+ * Источник устроен так же, как объект из маппера при обновлении: заполнены только поля запроса.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertyCopyBenchmark {
+
+    private Order orderSource;
+
+    private Order orderDestination;
+
+    private Client clientSource;
+
+    private Client clientDestination;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        clientDestination = new Client(1L, "Client 1", new ArrayList<>(), 0L);
+        orderDestination = new Order(1L, "Product 1", BigDecimal.ONE, clientDestination, now, now, 0L);
+        clientDestination.addOrder(orderDestination);
+
+        orderSource = new Order();
+        orderSource.setProduct("Product 2");
+        orderSource.setCost(BigDecimal.TEN);
+        orderSource.setClient(Client.builder().id(1L).build());
+
+        clientSource = Client.builder().id(1L).name("Client 2").build();
+    }
+
+    @Benchmark
+    public Order orderMethodHandles() {
+        BeanUtils.copyNonNullProperties(orderSource, orderDestination);
+        return orderDestination;
+    }
+
+    @Benchmark
+    public Order orderReflective() throws IllegalAccessException {
+        reflectiveCopy(orderSource, orderDestination);
+        return orderDestination;
+    }
+
+    @Benchmark
+    public Client clientMethodHandles() {
+        BeanUtils.copyNonNullProperties(clientSource, clientDestination);
+        return clientDestination;
+    }
+
+    @Benchmark
+    public Client clientReflective() throws IllegalAccessException {
+        reflectiveCopy(clientSource, clientDestination);
+        return clientDestination;
+    }
+
+    private static void reflectiveCopy(Object source, Object destination) throws IllegalAccessException {
+        for (Field field : source.getClass().getDeclaredFields()) {
+            field.setAccessible(true);
+            Object value = field.get(source);
+
+            if (value != null) {
+                field.set(destination, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.rest.benchmark;
+
+import com.example.rest.mapper.v1.ClientMapper;
+import com.example.rest.mapper.v1.OrderMapper;
+import com.example.rest.model.Client;
+import com.example.rest.web.model.ClientListResponse;
+import com.example.rest.web.model.OrderListResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответов списками в JSON. Запись идёт в пустой поток,
+ * поэтому измеряется только работа сериализатора, без копирования итогового массива.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100"})
+    public int clientCount;
+
+    @Param({"10", "1000"})
+    public int ordersPerClient;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ClientListResponse clientListResponse;
+
+    private OrderListResponse orderListResponse;
+
+    @Setup
+    public void setUp() {
+        List<Client> clients = BenchmarkData.clients(clientCount, ordersPerClient);
+        OrderMapper orderMapper = new OrderMapper(null);
+
+        clientListResponse = new ClientMapper(orderMapper).clientListToClientResponse(clients);
+        orderListResponse = orderMapper.orderListToOrderListResponse(BenchmarkData.orders(clients));
+    }
+
+    @Benchmark
+    public void clientList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), clientListResponse);
+    }
+
+    @Benchmark
+    public void orderList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), orderListResponse);
+    }
+}
@@ -1,44 +1,69 @@
 package com.example.rest.aop;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер методов, помеченных {@link Loggable}: один {@code @Around} пишет время выполнения
+ * в таймер {@value #METRIC_NAME} с гистограммой, теги - класс, метод и исключение.
+ * Таймер успешных вызовов берётся из кэша по методу, результат логируется только на DEBUG.
+ */
 @Aspect
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class LoggingAspect {
 
-    @Before("@annotation(Loggable)")
-    public void logBefore(JoinPoint joinPoint) {
-        log.info("Before execution of: {}", joinPoint.getSignature().getName());
-    }
+    static final String METRIC_NAME = "app.method.execution";
 
-    @After("@annotation(Loggable)")
-    public void logAfter(JoinPoint joinPoint) {
-        log.info("After execution of: {}", joinPoint.getSignature().getName());
-    }
+    private static final String NO_EXCEPTION = "none";
 
-    @AfterReturning(pointcut = "@annotation(Loggable)", returning = "result")
-    public void logAfterReturning(JoinPoint joinPoint, Object result) {
-        log.info("After returning from: {} with result: {}", joinPoint.getSignature().getName(), result);
-    }
+    private final MeterRegistry meterRegistry;
 
-    @AfterThrowing(pointcut = "@annotation(Loggable)", throwing = "exception")
-    public void logAfterThrowing(JoinPoint joinPoint, Exception exception) {
-        log.info("After throwing from: {} with exception: {}", joinPoint.getSignature().getName(), exception.getMessage());
-    }
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
 
-    @Around("@annotation(Loggable)")
-    public Object logAround(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        log.info("Around method: {} is called", proceedingJoinPoint.getSignature().getName());
+    @Around("@annotation(com.example.rest.aop.Loggable)")
+    public Object timed(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
 
-        Object result = proceedingJoinPoint.proceed();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            timer(method, ex.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("Method {} threw {}", method.getName(), ex.toString());
+            throw ex;
+        }
 
-        log.info("Around method: {} is finished", proceedingJoinPoint.getSignature().getName());
+        successTimers.computeIfAbsent(method, m -> timer(m, NO_EXCEPTION))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (log.isDebugEnabled()) {
+            log.debug("Method {} returned {}", method.getName(), result);
+        }
 
         return result;
     }
+
+    private Timer timer(Method method, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .description("Время выполнения методов, помеченных @Loggable")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 }
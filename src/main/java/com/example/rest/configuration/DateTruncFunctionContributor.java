@@ -0,0 +1,32 @@
+package com.example.rest.configuration;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Функции {@code date_trunc_utc_<интервал>(x)} для группировки по времени в criteria-запросах.
+ * Единица интервала вшита в SQL, а не передаётся параметром: иначе выражения в SELECT и GROUP BY
+ * получают разные параметры и Postgres их не сопоставляет.
+ * Подключается через {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ */
+public class DateTruncFunctionContributor implements FunctionContributor {
+
+    private static final List<String> UNITS = List.of("hour", "day", "week", "month");
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Instant> instantType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.INSTANT);
+
+        for (String unit : UNITS) {
+            functionContributions.getFunctionRegistry()
+                    .registerPattern("date_trunc_utc_" + unit, "date_trunc('" + unit + "', ?1, 'UTC')", instantType);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.rest.configuration;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.List;
+
+/**
+ * Кэш второго уровня Hibernate в Caffeine через JCache. По умолчанию он выключен в {@code application.yaml}
+ * ({@code hibernate.cache.use_second_level_cache: false}), иначе Hibernate сам выбрал бы JCache из classpath
+ * и кэшировал бы сущности в ненастроенных регионах. Эта конфигурация включает его с заданными регионами.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.second-level-cache.enabled", havingValue = "true")
+public class SecondLevelCacheConfiguration {
+
+    private static final List<String> REGIONS = List.of("clients", "orders", "client-orders");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+
+        return provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> REGIONS.forEach(region ->
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region)));
+    }
+}
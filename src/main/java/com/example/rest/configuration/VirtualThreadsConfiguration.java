@@ -0,0 +1,55 @@
+package com.example.rest.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Режим виртуальных потоков ({@code spring.threads.virtual.enabled=true}).
+ * Tomcat и асинхронные задачи Spring Boot переводит на виртуальные потоки сам,
+ * здесь к пулу соединений добавляется ограничитель по его размеру.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfiguration {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor(
+            @Value("${app.datasource-limiter.acquire-timeout:2s}") Duration acquireTimeout,
+            @Value("${app.datasource-limiter.max-waiting:10000}") int maxWaiting) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new ConnectionLimitingDataSource(hikari, hikari.getMaximumPoolSize(), acquireTimeout, maxWaiting);
+                }
+
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionLimiterMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.forEach(dataSource -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+                Gauge.builder("app.datasource.limiter.waiting", limiter, ConnectionLimitingDataSource::getWaitingCount)
+                        .description("Запросы, ожидающие соединения с базой данных")
+                        .register(registry);
+                Gauge.builder("app.datasource.limiter.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("Свободные разрешения на соединение с базой данных")
+                        .register(registry);
+            }
+        });
+    }
+}
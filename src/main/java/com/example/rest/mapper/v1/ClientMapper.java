@@ -1,6 +1,7 @@
 package com.example.rest.mapper.v1;
 
 import com.example.rest.model.Client;
+import com.example.rest.model.ClientOrderSummary;
 import com.example.rest.web.model.ClientListResponse;
 import com.example.rest.web.model.ClientResponse;
 import com.example.rest.web.model.UpsertClientRequest;
@@ -42,6 +43,13 @@ public class ClientMapper {
         return clientResponse;
     }
 
+    /**
+     * Проекция без списка заказов: только сводка по ним.
+     */
+    public ClientResponse clientToSummaryResponse(Client client, ClientOrderSummary summary) {
+        return new ClientResponse(client.getId(), client.getName(), null, summary);
+    }
+
     public ClientListResponse clientListToClientResponse(List<Client> clients) {
         ClientListResponse response = new ClientListResponse();
 
@@ -0,0 +1,45 @@
+package com.example.rest.model;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Сводка по набору строк: число строк, суммы id и версий и последнее изменение.
+ * Вставка меняет число строк, удаление - число и сумму id, обновление - сумму версий.
+ */
+public record AggregateStamp(Long count, Long idSum, Long versionSum, Instant lastModified) {
+
+    public AggregateStamp(Long count, Long idSum, Long versionSum) {
+        this(count, idSum, versionSum, null);
+    }
+
+    /**
+     * Та же сводка, посчитанная в памяти; {@code lastModified} может быть {@code null}.
+     */
+    public static <T> AggregateStamp of(Collection<T> rows,
+                                        Function<T, Long> id,
+                                        Function<T, Long> version,
+                                        Function<T, Instant> lastModified) {
+        long idSum = 0;
+        long versionSum = 0;
+        Instant last = null;
+        for (T row : rows) {
+            idSum += id.apply(row);
+            Long rowVersion = version.apply(row);
+            versionSum += rowVersion == null ? 0 : rowVersion;
+            Instant modified = lastModified == null ? null : lastModified.apply(row);
+            if (modified != null && (last == null || modified.isAfter(last))) {
+                last = modified;
+            }
+        }
+
+        return new AggregateStamp((long) rows.size(), idSum, versionSum, last);
+    }
+
+    public String tag() {
+        String tag = count + "-" + idSum + "-" + versionSum;
+
+        return lastModified == null ? tag : tag + "-" + lastModified.toEpochMilli();
+    }
+}
@@ -2,6 +2,9 @@ package com.example.rest.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,20 +16,28 @@ import java.util.stream.Collectors;
 @NoArgsConstructor
 @Builder
 @Entity(name = "clients")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clients")
 public class Client {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clients_seq")
+    @SequenceGenerator(name = "clients_seq", sequenceName = "clients_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "client_name")
     private String name;
 
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "client-orders")
     @ToString.Exclude
     @Builder.Default
     private List<Order> orders = new ArrayList<>();
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     public void addOrder(Order order) {
         if (orders == null) orders = new ArrayList<>();
         orders.add(order);
@@ -0,0 +1,36 @@
+package com.example.rest.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Сводка по заказам клиента: число заказов, суммарная стоимость и время создания последнего заказа.
+ */
+public record ClientOrderSummary(Long orderCount, BigDecimal totalCost, Instant lastOrderAt) {
+
+    public static final ClientOrderSummary EMPTY = new ClientOrderSummary(0L, BigDecimal.ZERO, null);
+
+    public ClientOrderSummary {
+        totalCost = totalCost == null ? BigDecimal.ZERO : totalCost;
+    }
+
+    public ClientOrderSummary plus(BigDecimal cost, Instant createAt) {
+        Instant last = lastOrderAt == null || (createAt != null && createAt.isAfter(lastOrderAt)) ? createAt : lastOrderAt;
+
+        return new ClientOrderSummary(orderCount + 1, totalCost.add(orZero(cost)), last);
+    }
+
+    public ClientOrderSummary minus(BigDecimal cost, Instant lastOrderAt) {
+        return orderCount <= 1
+                ? EMPTY
+                : new ClientOrderSummary(orderCount - 1, totalCost.subtract(orZero(cost)), lastOrderAt);
+    }
+
+    public ClientOrderSummary withCostChanged(BigDecimal previous, BigDecimal current) {
+        return new ClientOrderSummary(orderCount, totalCost.subtract(orZero(previous)).add(orZero(current)), lastOrderAt);
+    }
+
+    private static BigDecimal orZero(BigDecimal cost) {
+        return cost == null ? BigDecimal.ZERO : cost;
+    }
+}
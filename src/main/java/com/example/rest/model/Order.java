@@ -2,6 +2,9 @@ package com.example.rest.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,17 +19,21 @@ import java.time.Instant;
 @Setter
 @ToString
 @Entity(name = "orders")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "orders")
+@Table(indexes = @Index(name = "orders_create_at_id_idx", columnList = "createAt, id"))
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String product;
 
     private BigDecimal cost;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id")
     @ToString.Exclude
     private Client client;
@@ -36,4 +43,8 @@ public class Order {
 
     @UpdateTimestamp
     private Instant updateAt;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
@@ -0,0 +1,61 @@
+package com.example.rest.model;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Статистика стоимости заказов в одной группе. Сумма, минимум, максимум и среднее
+ * считаются по заказам с указанной стоимостью, {@code count} - по всем заказам группы.
+ */
+public record OrderStats(String key, long count, BigDecimal sum, BigDecimal min, BigDecimal max, BigDecimal average) {
+
+    public static OrderStats of(Object key, long count, long costCount, BigDecimal sum, BigDecimal min, BigDecimal max) {
+        BigDecimal average = costCount == 0 || sum == null
+                ? null
+                : sum.divide(BigDecimal.valueOf(costCount), MathContext.DECIMAL64);
+
+        return new OrderStats(key == null ? null : key.toString(), count, sum, min, max, average);
+    }
+
+    /**
+     * Накопитель для подсчёта статистики в памяти.
+     */
+    public static class Accumulator {
+
+        private long count;
+
+        private long costCount;
+
+        private BigDecimal sum;
+
+        private BigDecimal min;
+
+        private BigDecimal max;
+
+        public void add(BigDecimal cost) {
+            count++;
+            if (cost == null) {
+                return;
+            }
+
+            costCount++;
+            sum = sum == null ? cost : sum.add(cost);
+            min = min == null || cost.compareTo(min) < 0 ? cost : min;
+            max = max == null || cost.compareTo(max) > 0 ? cost : max;
+        }
+
+        public Accumulator merge(Accumulator other) {
+            count += other.count;
+            costCount += other.costCount;
+            sum = sum == null ? other.sum : other.sum == null ? sum : sum.add(other.sum);
+            min = min == null || (other.min != null && other.min.compareTo(min) < 0) ? other.min : min;
+            max = max == null || (other.max != null && other.max.compareTo(max) > 0) ? other.max : max;
+
+            return this;
+        }
+
+        public OrderStats toStats(Object key) {
+            return OrderStats.of(key, count, costCount, sum, min, max);
+        }
+    }
+}
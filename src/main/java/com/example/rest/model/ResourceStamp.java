@@ -0,0 +1,23 @@
+package com.example.rest.model;
+
+import java.time.Instant;
+
+/**
+ * Валидатор представления ресурса для условных GET: значение сильного ETag
+ * и время последнего изменения, если оно однозначно определяет представление.
+ * Считается отдельным лёгким запросом, без загрузки самих сущностей.
+ */
+public record ResourceStamp(String tag, Instant lastModified) {
+
+    public static ResourceStamp of(String tag) {
+        return new ResourceStamp(tag, null);
+    }
+
+    public String eTag() {
+        return "\"" + tag + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+}
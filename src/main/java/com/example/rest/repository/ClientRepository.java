@@ -1,6 +1,7 @@
 package com.example.rest.repository;
 
 import com.example.rest.model.Client;
+import com.example.rest.web.model.TextMatch;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,10 +12,14 @@ public interface ClientRepository {
 
     Optional<Client> findById(Long id);
 
+    List<Client> searchByName(String name, TextMatch match, int limit);
+
     Client save(Client client);
 
     Client update(Client client);
 
+    Client update(Client client, long expectedVersion);
+
     void deleteById(Long id);
 
 }
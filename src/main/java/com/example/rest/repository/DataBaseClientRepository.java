@@ -1,14 +1,36 @@
 package com.example.rest.repository;
 
+import com.example.rest.model.AggregateStamp;
 import com.example.rest.model.Client;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface DataBaseClientRepository extends JpaRepository<Client, Long> {
 
     @Override
     @EntityGraph(attributePaths = {"orders"})
     List<Client> findAll();
+
+    List<Client> findAllBy(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"orders"})
+    Optional<Client> findWithOrdersById(Long id);
+
+    @Query("select c from clients c where lower(c.name) like :pattern escape '\\'")
+    List<Client> findAllByNameLike(String pattern, Pageable pageable);
+
+    @Query("select c.version from clients c where c.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("""
+            select new com.example.rest.model.AggregateStamp(
+                count(c), coalesce(sum(c.id), 0L), coalesce(sum(c.version), 0L))
+            from clients c
+            """)
+    AggregateStamp aggregateStamp();
 }
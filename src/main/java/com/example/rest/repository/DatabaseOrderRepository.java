@@ -1,18 +1,71 @@
 package com.example.rest.repository;
 
 
+import com.example.rest.model.AggregateStamp;
+import com.example.rest.model.Client;
+import com.example.rest.model.ClientOrderSummary;
 import com.example.rest.model.Order;
+import com.example.rest.model.ResourceStamp;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
 
 
-public interface DatabaseOrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
+public interface DatabaseOrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>, OrderCriteriaRepository {
 
     Page<Order> findAllByProduct(String product, Pageable pageable);
 
+    @Modifying
+    @Query("delete from orders o where o.client.id = :clientId")
+    int deleteAllByClientId(Long clientId);
+
+    @Modifying
+    @Query("""
+            update orders o
+            set o.product = coalesce(:product, o.product),
+                o.cost = coalesce(:cost, o.cost),
+                o.client = :client,
+                o.updateAt = :now,
+                o.version = o.version + 1
+            where o.id = :id and o.version = :version and o.updateAt > :updatedAfter
+            """)
+    int updateIfUnchanged(Long id, long version, String product, BigDecimal cost, Client client,
+                          Instant now, Instant updatedAfter);
+
+    @Query("""
+            select new com.example.rest.model.ResourceStamp(cast(o.version as String), o.updateAt)
+            from orders o
+            where o.id = :id
+            """)
+    Optional<ResourceStamp> findStampById(Long id);
+
+    @Query("""
+            select new com.example.rest.model.AggregateStamp(
+                count(o), coalesce(sum(o.id), 0L), coalesce(sum(o.version), 0L), max(o.updateAt))
+            from orders o
+            """)
+    AggregateStamp aggregateStamp();
+
+    @Query("""
+            select new com.example.rest.model.AggregateStamp(
+                count(o), coalesce(sum(o.id), 0L), coalesce(sum(o.version), 0L), max(o.updateAt))
+            from orders o
+            where o.client.id = :clientId
+            """)
+    AggregateStamp aggregateStampByClientId(Long clientId);
+
+    @Query("""
+            select new com.example.rest.model.ClientOrderSummary(count(o), sum(o.cost), max(o.createAt))
+            from orders o
+            where o.client.id = :clientId
+            """)
+    ClientOrderSummary findSummaryByClientId(Long clientId);
+
 }
@@ -0,0 +1,35 @@
+package com.example.rest.repository;
+
+import java.util.Locale;
+
+/**
+ * Шаблоны LIKE для поиска без учёта регистра: спецсимволы запроса экранируются,
+ * сравнение идёт с {@code lower(...)} колонки, по которому построены триграммные индексы.
+ */
+public final class LikePatterns {
+
+    public static final char ESCAPE = '\\';
+
+    private LikePatterns() {
+    }
+
+    public static String prefix(String value) {
+        return escape(value) + "%";
+    }
+
+    public static String contains(String value) {
+        return "%" + escape(value) + "%";
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.rest.repository;
+
+import com.example.rest.model.Order;
+import com.example.rest.model.OrderStats;
+import com.example.rest.web.model.OrderStatsGroupBy;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface OrderCriteriaRepository {
+
+    void forEach(Specification<Order> specification, int fetchSize, Consumer<Order> action);
+
+    List<OrderStats> stats(Specification<Order> specification, OrderStatsGroupBy groupBy);
+}
@@ -0,0 +1,83 @@
+package com.example.rest.repository;
+
+import com.example.rest.model.Order;
+import com.example.rest.web.model.OrderCursor;
+import com.example.rest.web.model.OrderFilter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+public interface OrderPredicates {
+
+    Comparator<Order> CURSOR_ORDER = Comparator.comparing(Order::getCreateAt).thenComparing(Order::getId);
+
+    static Predicate<Order> withFilter(OrderFilter orderFilter) {
+        return byProductName(orderFilter.getProductName())
+                .and(byCostRange(orderFilter.getMinCost(), orderFilter.getMaxCost()))
+                .and(byProductPrefix(orderFilter.getProductPrefix()))
+                .and(byProductContains(orderFilter.getProductContains()))
+                .and(byClientId(orderFilter.getClientId()))
+                .and(byCreatedAtBefore(orderFilter.getCreatedBefore()))
+                .and(byUpdatedAtBefore(orderFilter.getUpdatedBefore()));
+    }
+
+    static Predicate<Order> byProductName(String productName) {
+        return order -> productName == null || productName.equals(order.getProduct());
+    }
+
+    static Predicate<Order> byProductPrefix(String prefix) {
+        return order -> prefix == null
+                || (order.getProduct() != null && order.getProduct().toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT)));
+    }
+
+    static Predicate<Order> byProductContains(String substring) {
+        return order -> substring == null
+                || (order.getProduct() != null && order.getProduct().toLowerCase(Locale.ROOT).contains(substring.toLowerCase(Locale.ROOT)));
+    }
+
+    static Predicate<Order> byCostRange(BigDecimal minCost, BigDecimal maxCost) {
+        return order -> {
+            if (minCost == null && maxCost == null) {
+                return true;
+            }
+
+            BigDecimal cost = order.getCost();
+            if (cost == null) {
+                return false;
+            }
+
+            return (minCost == null || cost.compareTo(minCost) >= 0)
+                    && (maxCost == null || cost.compareTo(maxCost) <= 0);
+        };
+    }
+
+    static Predicate<Order> byClientId(Long clientId) {
+        return order -> clientId == null
+                || (order.getClient() != null && clientId.equals(order.getClient().getId()));
+    }
+
+    static Predicate<Order> byCreatedAtBefore(Instant createdBefore) {
+        return order -> createdBefore == null
+                || (order.getCreateAt() != null && !order.getCreateAt().isAfter(createdBefore));
+    }
+
+    static Predicate<Order> byUpdatedAtBefore(Instant updatedBefore) {
+        return order -> updatedBefore == null
+                || (order.getUpdateAt() != null && !order.getUpdateAt().isAfter(updatedBefore));
+    }
+
+    static Predicate<Order> byCursor(OrderCursor cursor) {
+        return order -> {
+            if (cursor == null) {
+                return true;
+            }
+
+            int compared = order.getCreateAt().compareTo(cursor.createAt());
+
+            return compared > 0 || (compared == 0 && order.getId() > cursor.id());
+        };
+    }
+}
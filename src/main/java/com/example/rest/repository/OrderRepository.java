@@ -1,20 +1,41 @@
 package com.example.rest.repository;
 
+import com.example.rest.model.ClientOrderSummary;
 import com.example.rest.model.Order;
+import com.example.rest.web.model.OrderFilter;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
 
 public interface OrderRepository {
 
     List<Order> findAll();
 
+    List<Order> filterBy(OrderFilter filter);
+
+    void forEach(OrderFilter filter, Consumer<Order> action);
+
+    /**
+     * Сводит заказы под фильтром коллектором. Хранилище может сводить части параллельно
+     * и объединять их комбинатором коллектора, порядок заказов не гарантируется.
+     */
+    <R> R collect(OrderFilter filter, Collector<Order, ?, R> collector);
+
     Optional<Order> findById(Long id);
 
+    List<Order> findAllByClientIdIn(Collection<Long> clientIds);
+
+    ClientOrderSummary findSummaryByClientId(Long clientId);
+
     Order save(Order order);
 
     Order update (Order order);
 
+    Order update(Order order, long expectedVersion);
+
     void deleteById(Long id);
 
     void deleteByIdIn(List<Long> ids);
@@ -1,7 +1,9 @@
 package com.example.rest.repository;
 
 import com.example.rest.model.Order;
+import com.example.rest.web.model.OrderCursor;
 import com.example.rest.web.model.OrderFilter;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
@@ -9,9 +11,13 @@ import java.time.Instant;
 
 public interface OrderSpecification {
 
+    Sort CURSOR_SORT = Sort.by("createAt", "id");
+
     static Specification<Order> withFilter(OrderFilter orderFilter){
         return Specification.where(byProductName(orderFilter.getProductName()))
                 .and(byCostRange(orderFilter.getMinCost(), orderFilter.getMaxCost()))
+                .and(byProductPrefix(orderFilter.getProductPrefix()))
+                .and(byProductContains(orderFilter.getProductContains()))
                 .and(byClientId(orderFilter.getClientId()))
                 .and(byCreatedAtBefore(orderFilter.getCreatedBefore()))
                 .and(byUpdatedAtBefore(orderFilter.getUpdatedBefore()));
@@ -26,6 +32,26 @@ public interface OrderSpecification {
         });
     }
 
+    static Specification<Order> byProductPrefix(String prefix) {
+        return (root, query, criteriaBuilder) -> {
+            if (prefix == null) {
+                return null;
+            }
+
+            return criteriaBuilder.like(criteriaBuilder.lower(root.get("product")), LikePatterns.prefix(prefix), LikePatterns.ESCAPE);
+        };
+    }
+
+    static Specification<Order> byProductContains(String substring) {
+        return (root, query, criteriaBuilder) -> {
+            if (substring == null) {
+                return null;
+            }
+
+            return criteriaBuilder.like(criteriaBuilder.lower(root.get("product")), LikePatterns.contains(substring), LikePatterns.ESCAPE);
+        };
+    }
+
     static Specification<Order> byCostRange(BigDecimal minCost, BigDecimal maxCost) {
         return (root, query, criteriaBuilder) -> {
             if (minCost == null && maxCost == null) {
@@ -71,4 +97,18 @@ public interface OrderSpecification {
             return criteriaBuilder.lessThanOrEqualTo(root.get("updateAt"), updatedBefore);
         });
     }
+
+    static Specification<Order> byCursor(OrderCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return null;
+            }
+
+            return criteriaBuilder.and(
+                    criteriaBuilder.greaterThanOrEqualTo(root.get("createAt"), cursor.createAt()),
+                    criteriaBuilder.or(
+                            criteriaBuilder.greaterThan(root.get("createAt"), cursor.createAt()),
+                            criteriaBuilder.greaterThan(root.get("id"), cursor.id())));
+        };
+    }
 }
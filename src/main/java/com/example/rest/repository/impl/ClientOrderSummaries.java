@@ -0,0 +1,142 @@
+package com.example.rest.repository.impl;
+
+import com.example.rest.model.ClientOrderSummary;
+import com.example.rest.utils.ConcurrentLongMap;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Сводки по заказам клиентов для in-memory хранилища, которые ведутся при каждом изменении заказа.
+ * Сводка клиента - неизменяемый снимок в {@link AtomicReference}, изменения применяются CAS-ом,
+ * поэтому чтение не обходит заказы, а число, сумма и время последнего заказа всегда согласованы.
+ */
+class ClientOrderSummaries {
+
+    private final ConcurrentLongMap<AtomicReference<ClientOrderSummary>> summaries = new ConcurrentLongMap<>();
+
+    ClientOrderSummary get(Long clientId) {
+        AtomicReference<ClientOrderSummary> summary = clientId == null ? null : summaries.get(clientId);
+
+        return summary == null ? ClientOrderSummary.EMPTY : summary.get();
+    }
+
+    void add(Long clientId, BigDecimal cost, Instant createAt) {
+        if (clientId == null) {
+            return;
+        }
+
+        summaryOf(clientId).updateAndGet(summary -> summary.plus(cost, createAt));
+    }
+
+    void changeCost(Long clientId, BigDecimal previous, BigDecimal current) {
+        if (clientId != null && (previous == null ? current != null : current == null || previous.compareTo(current) != 0)) {
+            summaryOf(clientId).updateAndGet(summary -> summary.withCostChanged(previous, current));
+        }
+    }
+
+    /**
+     * Убирает заказ из сводки. Если удалён последний по времени заказ, новое время
+     * берётся из {@code lastCreateAt}, который должен уже не видеть удалённый заказ.
+     */
+    void remove(Long clientId, BigDecimal cost, Instant createAt, Supplier<Instant> lastCreateAt) {
+        AtomicReference<ClientOrderSummary> summary = clientId == null ? null : summaries.get(clientId);
+        if (summary == null) {
+            return;
+        }
+
+        while (true) {
+            ClientOrderSummary current = summary.get();
+            Instant last = Objects.equals(current.lastOrderAt(), createAt) ? lastCreateAt.get() : current.lastOrderAt();
+
+            if (summary.compareAndSet(current, current.minus(cost, last))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Заполняет сводки по записям при открытии хранилища. Число, сумма и время копятся в примитивах,
+     * объекты создаются на клиента, а не на заказ.
+     */
+    void load(OrderRows rows) {
+        ConcurrentLongMap<Totals> totals = new ConcurrentLongMap<>();
+        rows.forEachLive((clientId, hasCost, costUnscaled, costScale, createAt) -> {
+            if (clientId == OrderRow.NO_CLIENT) {
+                return;
+            }
+
+            Totals client = totals.get(clientId);
+            if (client == null) {
+                client = new Totals(clientId);
+                totals.put(clientId, client);
+            }
+            client.add(hasCost, costUnscaled, costScale, createAt);
+        });
+
+        totals.forEach(client -> summaries.put(client.clientId, new AtomicReference<>(client.toSummary())));
+    }
+
+    private AtomicReference<ClientOrderSummary> summaryOf(Long clientId) {
+        AtomicReference<ClientOrderSummary> summary = summaries.get(clientId);
+        if (summary != null) {
+            return summary;
+        }
+
+        return summaries.compute(clientId, (id, current) ->
+                current != null ? current : new AtomicReference<>(ClientOrderSummary.EMPTY));
+    }
+
+    /**
+     * Итоги клиента при загрузке: стоимости одного масштаба складываются в {@code long},
+     * остальные и переполнение - в {@link BigDecimal}.
+     */
+    private static final class Totals {
+
+        final long clientId;
+
+        long count;
+
+        long unscaled;
+
+        int scale;
+
+        boolean scaled;
+
+        BigDecimal rest = BigDecimal.ZERO;
+
+        long lastCreateAt = OrderRow.NO_TIME;
+
+        Totals(long clientId) {
+            this.clientId = clientId;
+        }
+
+        void add(boolean hasCost, long costUnscaled, int costScale, long createAt) {
+            count++;
+            lastCreateAt = Math.max(lastCreateAt, createAt);
+            if (!hasCost) {
+                return;
+            }
+
+            if (!scaled) {
+                scale = costScale;
+                scaled = true;
+            }
+            long sum = unscaled + costUnscaled;
+            if (costScale == scale && ((unscaled ^ sum) & (costUnscaled ^ sum)) >= 0) {
+                unscaled = sum;
+            } else {
+                rest = rest.add(BigDecimal.valueOf(costUnscaled, costScale));
+            }
+        }
+
+        ClientOrderSummary toSummary() {
+            BigDecimal total = scaled ? rest.add(BigDecimal.valueOf(unscaled, scale)) : rest;
+
+            return new ClientOrderSummary(count, total, OrderRow.toInstant(lastCreateAt));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.rest.repository.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Диапазон стоимости для {@link RowFilter}. Границы заранее приводятся к каждому масштабу от 0 до 18,
+ * поэтому запись сравнивается по немасштабированному {@code long} без создания {@link BigDecimal}.
+ * Для других масштабов и границ, не помещающихся в {@code long}, сравнение идёт через {@link BigDecimal}.
+ */
+final class CostRange {
+
+    private static final int SCALES = 19;
+
+    private final BigDecimal minCost;
+
+    private final BigDecimal maxCost;
+
+    private final long[] min = new long[SCALES];
+
+    private final long[] max = new long[SCALES];
+
+    private final boolean[] exact = new boolean[SCALES];
+
+    CostRange(BigDecimal minCost, BigDecimal maxCost) {
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+
+        for (int scale = 0; scale < SCALES; scale++) {
+            try {
+                min[scale] = minCost == null ? Long.MIN_VALUE : minCost.setScale(scale, RoundingMode.CEILING).unscaledValue().longValueExact();
+                max[scale] = maxCost == null ? Long.MAX_VALUE : maxCost.setScale(scale, RoundingMode.FLOOR).unscaledValue().longValueExact();
+                exact[scale] = true;
+            } catch (ArithmeticException ex) {
+                exact[scale] = false;
+            }
+        }
+    }
+
+    boolean test(boolean hasCost, long unscaled, int scale) {
+        if (!hasCost) {
+            return false;
+        }
+
+        if (scale >= 0 && scale < SCALES && exact[scale]) {
+            return unscaled >= min[scale] && unscaled <= max[scale];
+        }
+
+        BigDecimal cost = BigDecimal.valueOf(unscaled, scale);
+        return (minCost == null || cost.compareTo(minCost) >= 0)
+                && (maxCost == null || cost.compareTo(maxCost) <= 0);
+    }
+}
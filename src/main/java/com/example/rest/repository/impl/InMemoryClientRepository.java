@@ -1,23 +1,28 @@
 package com.example.rest.repository.impl;
 
 import com.example.rest.exception.EntityNotFoundException;
+import com.example.rest.exception.PreconditionFailedException;
 import com.example.rest.model.Client;
 import com.example.rest.model.Order;
 import com.example.rest.repository.ClientRepository;
 import com.example.rest.repository.OrderRepository;
+import com.example.rest.repository.journal.JournalRecord;
+import com.example.rest.repository.journal.RepositoryJournal;
 import com.example.rest.utils.BeanUtils;
+import com.example.rest.utils.ConcurrentLongMap;
+import com.example.rest.web.model.TextMatch;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Repository;
 
 import java.text.MessageFormat;
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class InMemoryClientRepository implements ClientRepository {
@@ -25,13 +30,17 @@ public class InMemoryClientRepository implements ClientRepository {
 
     private OrderRepository orderRepository;
 
-    private Map<Long, Client> repository = new ConcurrentHashMap<>();
+    private RepositoryJournal journal = RepositoryJournal.NOOP;
+
+    private final ConcurrentLongMap<Client> repository = new ConcurrentLongMap<>();
+
+    private final TextIndex byName = new TextIndex();
 
     private final AtomicLong currentId = new AtomicLong(1);
 
     @Override
     public List<Client> findAll() {
-        return  new ArrayList<>(repository.values());
+        return repository.values();
     }
 
     @Override
@@ -39,29 +48,81 @@ public class InMemoryClientRepository implements ClientRepository {
         return Optional.ofNullable(repository.get(id));
     }
 
+    @Override
+    public List<Client> searchByName(String name, TextMatch match, int limit) {
+        String query = TextIndex.normalize(name);
+        Optional<Stream<Long>> candidates = match == TextMatch.PREFIX
+                ? byName.findStartingWith(name)
+                : byName.findContaining(name);
+
+        return candidates.map(ids -> ids.map(repository::get).filter(Objects::nonNull))
+                .orElseGet(repository::stream)
+                .filter(client -> {
+                    String clientName = TextIndex.normalize(client.getName());
+                    return match == TextMatch.PREFIX ? clientName.startsWith(query) : clientName.contains(query);
+                })
+                .sorted(Comparator.comparing(Client::getName, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Client::getId))
+                .limit(limit)
+                .toList();
+    }
+
     @Override
     public Client save(Client client) {
-        Long clientId = currentId.getAndIncrement();
+        long clientId = currentId.getAndIncrement();
         client.setId(clientId);
-        repository.put(clientId, client);
+        client.setVersion(0L);
+        long[] sequence = new long[1];
+        repository.compute(clientId, (id, absent) -> {
+            sequence[0] = journal.append(JournalRecord.ClientPut.of(client));
+            return client;
+        });
+        byName.add(client.getName(), clientId);
+        journal.awaitDurable(sequence[0]);
 
         return client;
     }
 
     @Override
     public Client update(Client client) {
-        Long clientId = client.getId();
-        Client currentClient = repository.get(clientId);
-        if (currentClient == null) {
-            throw new EntityNotFoundException(MessageFormat.format("Клиент по ID: {0} не найден!", clientId));
-        }
-
-        BeanUtils.copyNonNullProperties(client, currentClient);
-        currentClient.setId(clientId);
+        return update(client.getId(), client, null);
+    }
 
-        repository.put(clientId, currentClient);
+    @Override
+    public Client update(Client client, long expectedVersion) {
+        return update(client.getId(), client, expectedVersion);
+    }
 
-        return currentClient;
+    private Client update(Long clientId, Client client, Long expectedVersion) {
+        long[] sequence = new long[1];
+        Client updated = repository.compute(clientId, (id, currentClient) -> {
+            if (currentClient == null) {
+                throw new EntityNotFoundException(MessageFormat.format("Клиент по ID: {0} не найден!", clientId));
+            }
+            Long version = currentClient.getVersion();
+            if (expectedVersion != null && !expectedVersion.equals(version)) {
+                throw new PreconditionFailedException(MessageFormat.format("Клиент по ID: {0} был изменён другим запросом!", clientId));
+            }
+
+            String previousName = currentClient.getName();
+            long nextVersion = version == null ? 0L : version + 1;
+            // Журнал до изменения клиента: если запись отклонена, клиент остаётся прежним.
+            sequence[0] = journal.append(new JournalRecord.ClientPut(clientId,
+                    client.getName() == null ? previousName : client.getName(), nextVersion));
+
+            BeanUtils.copyNonNullProperties(client, currentClient);
+            currentClient.setId(clientId);
+            if (!Objects.equals(previousName, currentClient.getName())) {
+                byName.add(currentClient.getName(), clientId);
+                byName.remove(previousName, clientId);
+            }
+            currentClient.setVersion(nextVersion);
+
+            return currentClient;
+        });
+        journal.awaitDurable(sequence[0]);
+
+        return updated;
     }
 
     @Override
@@ -71,10 +132,37 @@ public class InMemoryClientRepository implements ClientRepository {
             throw new EntityNotFoundException(MessageFormat.format("Клиент по ID: {0} не найден!", id));
         }
 
-        orderRepository.deleteByIdIn(client.getOrders().stream().map(Order::getId).collect(Collectors.toList()));
-        repository.remove(id);
+        orderRepository.deleteByIdIn(orderRepository.findAllByClientIdIn(List.of(id)).stream().map(Order::getId).collect(Collectors.toList()));
+        long[] sequence = new long[1];
+        repository.compute(id, (key, current) -> {
+            sequence[0] = journal.append(new JournalRecord.ClientDelete(id));
+            return null;
+        });
+        byName.remove(client.getName(), id);
+        journal.awaitDurable(sequence[0]);
+    }
+
+    /**
+     * Возвращает клиента из журнала при старте: без новой версии и без записи в журнал.
+     */
+    public void restore(Client client) {
+        repository.put(client.getId(), client);
+        byName.add(client.getName(), client.getId());
+        currentId.accumulateAndGet(client.getId() + 1, Math::max);
+    }
 
+    /**
+     * Наибольший выданный ID клиента, включая удалённых клиентов.
+     */
+    public long lastId() {
+        return currentId.get() - 1;
+    }
 
+    /**
+     * Не выдавать новым клиентам ID до {@code lastId} включительно: они принадлежали клиентам до перезапуска.
+     */
+    public void reserveIds(long lastId) {
+        currentId.accumulateAndGet(lastId + 1, Math::max);
     }
 
     @Autowired
@@ -82,5 +170,10 @@ public class InMemoryClientRepository implements ClientRepository {
         this.orderRepository = orderRepository;
     }
 
+    @Autowired
+    public void setJournal(RepositoryJournal journal) {
+        this.journal = journal;
+    }
+
 
 }
@@ -1,36 +1,93 @@
 package com.example.rest.repository.impl;
 
 import com.example.rest.exception.EntityNotFoundException;
+import com.example.rest.exception.PreconditionFailedException;
 import com.example.rest.model.Client;
+import com.example.rest.model.ClientOrderSummary;
 import com.example.rest.model.Order;
 import com.example.rest.repository.ClientRepository;
-import com.example.rest.repository.OrderRepository;
+import com.example.rest.repository.OrderPredicates;
+import com.example.rest.repository.journal.JournalRecord;
+import com.example.rest.repository.journal.JournaledOrderRepository;
+import com.example.rest.repository.journal.RepositoryJournal;
 import com.example.rest.utils.BeanUtils;
+import com.example.rest.utils.ConcurrentLongMap;
+import com.example.rest.web.model.OrderCursor;
+import com.example.rest.web.model.OrderFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.text.MessageFormat;
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 @Component
-public class InMemoryOrderRepository implements OrderRepository {
+@ConditionalOnProperty(name = "app.order-store.type", havingValue = "heap", matchIfMissing = true)
+public class InMemoryOrderRepository implements JournaledOrderRepository {
+
+    private static final int PARALLEL_SCAN_SIZE = 8192;
 
     private ClientRepository clientRepository;
 
-    private final Map<Long, Order> repository = new ConcurrentHashMap<>();
+    private RepositoryJournal journal = RepositoryJournal.NOOP;
 
-    private final AtomicLong currentId = new AtomicLong(1);
+    private final ConcurrentLongMap<Order> repository = new ConcurrentLongMap<>();
+
+    private final OrderIndex index = new OrderIndex();
 
+    private final ClientOrderSummaries summaries = new ClientOrderSummaries();
+
+    private final AtomicLong currentId = new AtomicLong(1);
 
     @Override
     public List<Order> findAll() {
-        return new ArrayList<>(repository.values());
+        return repository.values();
+    }
+
+    @Override
+    public List<Order> filterBy(OrderFilter filter) {
+        Predicate<Order> predicate = OrderPredicates.withFilter(filter);
+
+        if (filter.usesCursor()) {
+            OrderCursor cursor = OrderCursor.decode(filter.getCursor());
+            Predicate<Order> afterCursor = predicate.and(OrderPredicates.byCursor(cursor));
+
+            Stream<Order> page = index.findByEquality(filter)
+                    .map(ids -> ordersOf(ids).filter(afterCursor).sorted(OrderPredicates.CURSOR_ORDER))
+                    .orElseGet(() -> ordersOf(index.findCreatedAfter(cursor)).filter(afterCursor));
+
+            return page.limit(filter.getPageSize()).toList();
+        }
+
+        long offset = (long) filter.getPageNumber() * filter.getPageSize();
+
+        return scan(filter)
+                .filter(predicate)
+                .collect(firstById(offset + filter.getPageSize()))
+                .stream()
+                .skip(offset)
+                .toList();
+    }
+
+    @Override
+    public void forEach(OrderFilter filter, Consumer<Order> action) {
+        select(filter).filter(OrderPredicates.withFilter(filter)).forEach(action);
+    }
+
+    @Override
+    public <R> R collect(OrderFilter filter, Collector<Order, ?, R> collector) {
+        return scan(filter).filter(OrderPredicates.withFilter(filter)).collect(collector);
     }
 
     @Override
@@ -38,9 +95,21 @@ public class InMemoryOrderRepository implements OrderRepository {
         return Optional.ofNullable(repository.get(id));
     }
 
+    @Override
+    public List<Order> findAllByClientIdIn(Collection<Long> clientIds) {
+        return ordersOf(clientIds.stream().flatMap(index::findByClientId))
+                .sorted(Comparator.comparing(Order::getId))
+                .toList();
+    }
+
+    @Override
+    public ClientOrderSummary findSummaryByClientId(Long clientId) {
+        return summaries.get(clientId);
+    }
+
     @Override
     public Order save(Order order) {
-        Long orderId = currentId.getAndIncrement();
+        long orderId = currentId.getAndIncrement();
         Long clientId = order.getClient().getId();
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден!"));
@@ -50,47 +119,191 @@ public class InMemoryOrderRepository implements OrderRepository {
         Instant now = Instant.now();
         order.setCreateAt(now);
         order.setUpdateAt(now);
+        order.setVersion(0L);
 
-        repository.put(orderId, order);
+        long[] sequence = new long[1];
+        repository.compute(orderId, (id, absent) -> {
+            sequence[0] = journal.append(JournalRecord.OrderPut.of(order));
+            return order;
+        });
+        index.add(OrderIndex.Values.of(order));
+        summaries.add(clientId, order.getCost(), now);
 
         client.addOrder(order);
-
-        clientRepository.update(client);
+        journal.awaitDurable(sequence[0]);
         return order;
     }
 
     @Override
     public Order update(Order order) {
-        Long orderId = order.getId();
+        return update(order.getId(), order, null);
+    }
+
+    @Override
+    public Order update(Order order, long expectedVersion) {
+        return update(order.getId(), order, expectedVersion);
+    }
+
+    private Order update(Long orderId, Order order, Long expectedVersion) {
         Instant now = Instant.now();
-        Order currentOrder = repository.get(orderId);
+        long[] sequence = new long[1];
+        OrderIndex.Values[] changed = new OrderIndex.Values[2];
 
-        if (currentOrder == null) {
-            throw new EntityNotFoundException(MessageFormat.format("Заказ по ID: {0} не найден!",  orderId));
-        }
+        Order updated = repository.compute(orderId, (id, currentOrder) -> {
+            if (currentOrder == null) {
+                throw new EntityNotFoundException(MessageFormat.format("Заказ по ID: {0} не найден!",  orderId));
+            }
+            Long version = currentOrder.getVersion();
+            if (expectedVersion != null && !expectedVersion.equals(version)) {
+                throw new PreconditionFailedException(MessageFormat.format("Заказ по ID: {0} был изменён другим запросом!", orderId));
+            }
 
-        BeanUtils.copyNonNullProperties(order, currentOrder);
+            // Новое состояние собирается в копии и попадает в заказ только после записи в журнал.
+            Order next = new Order(orderId, currentOrder.getProduct(), currentOrder.getCost(), currentOrder.getClient(),
+                    currentOrder.getCreateAt(), currentOrder.getUpdateAt(), version);
+            BeanUtils.copyNonNullProperties(order, next);
+            next.setUpdateAt(now);
+            next.setId(orderId);
+            next.setVersion(version == null ? 0L : version + 1);
+            sequence[0] = journal.append(JournalRecord.OrderPut.of(next));
 
-        currentOrder.setUpdateAt(now);
-        currentOrder.setId(orderId);
+            OrderIndex.Values previous = OrderIndex.Values.of(currentOrder);
+            BeanUtils.copyNonNullProperties(next, currentOrder);
+            OrderIndex.Values current = OrderIndex.Values.of(currentOrder);
+            index.replace(previous, current);
+            changed[0] = previous;
+            changed[1] = current;
+            return currentOrder;
+        });
 
-        repository.put(orderId, currentOrder);
-        return currentOrder;
+        // Сводки меняются после снятия блокировки сегмента: пересчёт времени последнего заказа
+        // читает другие заказы клиента, а они могут лежать в том же сегменте.
+        OrderIndex.Values previous = changed[0];
+        OrderIndex.Values current = changed[1];
+        if (Objects.equals(previous.clientId(), current.clientId())) {
+            summaries.changeCost(current.clientId(), previous.cost(), current.cost());
+        } else {
+            removeFromSummary(previous);
+            summaries.add(current.clientId(), current.cost(), current.createAt());
+        }
+        journal.awaitDurable(sequence[0]);
+
+        return updated;
     }
 
     @Override
     public void deleteById(Long id) {
-        repository.remove(id);
+        Order[] removed = new Order[1];
+        long[] sequence = new long[1];
+        repository.compute(id, (key, current) -> {
+            if (current != null) {
+                sequence[0] = journal.append(new JournalRecord.OrderDelete(id));
+                removed[0] = current;
+            }
+            return null;
+        });
+
+        if (removed[0] != null) {
+            OrderIndex.Values values = OrderIndex.Values.of(removed[0]);
+            index.remove(values);
+            removeFromSummary(values);
+            journal.awaitDurable(sequence[0]);
+        }
+    }
+
+    @Override
+    public void restore(Order order) {
+        repository.put(order.getId(), order);
+        index.add(OrderIndex.Values.of(order));
+        if (order.getClient() != null) {
+            summaries.add(order.getClient().getId(), order.getCost(), order.getCreateAt());
+            order.getClient().addOrder(order);
+        }
+        currentId.accumulateAndGet(order.getId() + 1, Math::max);
+    }
+
+    @Override
+    public long lastId() {
+        return currentId.get() - 1;
+    }
 
+    @Override
+    public void reserveIds(long lastId) {
+        currentId.accumulateAndGet(lastId + 1, Math::max);
     }
 
     @Override
     public void deleteByIdIn(List<Long> ids) {
-        ids.forEach(repository::remove);
+        ids.forEach(this::deleteById);
+    }
+
+    private void removeFromSummary(OrderIndex.Values values) {
+        summaries.remove(values.clientId(), values.cost(), values.createAt(), () -> ordersOf(index.findByClientId(values.clientId()))
+                .filter(order -> !order.getId().equals(values.id()))
+                .map(Order::getCreateAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null));
+    }
+
+    private Stream<Order> select(OrderFilter filter) {
+        return index.find(filter)
+                .map(this::ordersOf)
+                .orElseGet(repository::stream);
+    }
+
+    /**
+     * Как {@link #select}, но на большом хранилище полный обход идёт по сегментам {@link ConcurrentLongMap}
+     * параллельно, а диапазон из индекса делится между потоками. Точные условия и поиск по названию
+     * выбирают немного заказов, их дешевле проверить в одном потоке.
+     */
+    private Stream<Order> scan(OrderFilter filter) {
+        boolean selective = filter.getClientId() != null || filter.getProductName() != null
+                || filter.getProductPrefix() != null || filter.getProductContains() != null;
+        if (selective || repository.size() < PARALLEL_SCAN_SIZE) {
+            return select(filter);
+        }
+
+        return index.find(filter)
+                .map(ids -> ordersOf(ids.parallel()))
+                .orElseGet(repository::parallelStream);
+    }
+
+    private Stream<Order> ordersOf(Stream<Long> ids) {
+        return ids.map(repository::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * Первые {@code limit} заказов по ID: каждая часть обхода держит не больше {@code limit} заказов,
+     * части сливаются без сортировки всех найденных.
+     */
+    private static Collector<Order, ?, List<Order>> firstById(long limit) {
+        Comparator<Order> byId = Comparator.comparing(Order::getId);
+
+        return Collector.of(
+                () -> new PriorityQueue<>(byId.reversed()),
+                (first, order) -> keepFirst(first, order, limit),
+                (first, other) -> {
+                    other.forEach(order -> keepFirst(first, order, limit));
+                    return first;
+                },
+                first -> first.stream().sorted(byId).toList());
+    }
+
+    private static void keepFirst(PriorityQueue<Order> first, Order order, long limit) {
+        first.add(order);
+        if (first.size() > limit) {
+            first.poll();
+        }
     }
 
     @Autowired
     public void setClientRepository(ClientRepository clientRepository) {
         this.clientRepository = clientRepository;
     }
+
+    @Autowired
+    public void setJournal(RepositoryJournal journal) {
+        this.journal = journal;
+    }
 }
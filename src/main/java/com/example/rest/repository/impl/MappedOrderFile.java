@@ -0,0 +1,255 @@
+package com.example.rest.repository.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Записи заказов фиксированной ширины в файле, отображённом в память кусками по {@value #CHUNK_RECORDS} записей.
+ * Каждую запись охраняет счётчик (seqlock): нечётный на время изменения, читатель повторяет чтение,
+ * если счётчик поменялся.
+ */
+@Slf4j
+final class MappedOrderFile implements OrderRows, Closeable {
+
+    private static final int MAGIC = 0x4f524453;
+
+    private static final int FORMAT = 1;
+
+    private static final int HEADER_BYTES = 64;
+
+    private static final int RECORD_BYTES = 64;
+
+    private static final int CHUNK_RECORDS = 1 << 16;
+
+    private static final long CHUNK_BYTES = (long) CHUNK_RECORDS * RECORD_BYTES;
+
+    private static final int SIZE = 8;
+
+    private static final int SEQUENCE = 0;
+
+    private static final int STATE = 8;
+
+    private static final int PRODUCT = 12;
+
+    private static final int CLIENT = 16;
+
+    private static final int COST = 24;
+
+    private static final int CREATE_AT = 32;
+
+    private static final int UPDATE_AT = 40;
+
+    private static final int VERSION = 48;
+
+    private static final int COST_SCALE = 56;
+
+    private static final int FLAGS = 60;
+
+    private static final int LIVE = 1;
+
+    private static final int DELETED = 2;
+
+    private static final int NO_COST = 1;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer header;
+
+    private volatile MappedByteBuffer[] chunks;
+
+    private volatile long size;
+
+    /**
+     * @param knownProducts размер словаря товаров: записи с большим номером товара после сбоя
+     *                      ссылаются на название, которое не успело попасть на диск
+     */
+    MappedOrderFile(Path file, int knownProducts) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        header = map(0, HEADER_BYTES);
+
+        if (created) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, FORMAT);
+            header.putLong(SIZE, 0);
+        } else if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT) {
+            channel.close();
+            throw new IOException("Файл " + file + " не является хранилищем заказов");
+        }
+
+        size = header.getLong(SIZE);
+        MappedByteBuffer[] mapped = new MappedByteBuffer[(int) ((size + CHUNK_RECORDS - 1) / CHUNK_RECORDS)];
+        for (int i = 0; i < mapped.length; i++) {
+            mapped[i] = mapChunk(i);
+        }
+        chunks = mapped;
+        repair(file, knownProducts);
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public OrderRow read(long slot, RowFilter filter) {
+        if (slot < 0 || slot >= size) {
+            return null;
+        }
+
+        MappedByteBuffer chunk = chunks[(int) (slot / CHUNK_RECORDS)];
+        int offset = (int) (slot % CHUNK_RECORDS) * RECORD_BYTES;
+        while (true) {
+            long before = (long) LONGS.getAcquire(chunk, offset + SEQUENCE);
+            if ((before & 1) == 0) {
+                int state = chunk.getInt(offset + STATE);
+                int flags = chunk.getInt(offset + FLAGS);
+                long clientId = chunk.getLong(offset + CLIENT);
+                int productId = chunk.getInt(offset + PRODUCT);
+                long cost = chunk.getLong(offset + COST);
+                int costScale = chunk.getInt(offset + COST_SCALE);
+                long createAt = chunk.getLong(offset + CREATE_AT);
+                long updateAt = chunk.getLong(offset + UPDATE_AT);
+                long version = chunk.getLong(offset + VERSION);
+                VarHandle.loadLoadFence();
+                if ((long) LONGS.getOpaque(chunk, offset + SEQUENCE) == before) {
+                    boolean hasCost = (flags & NO_COST) == 0;
+                    if (state != LIVE || !filter.test(slot + 1, clientId, productId, hasCost, cost, costScale, createAt, updateAt)) {
+                        return null;
+                    }
+
+                    return new OrderRow(slot + 1, clientId, productId, hasCost, cost, costScale, createAt, updateAt, version);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public void write(OrderRow row) {
+        write(row, LIVE);
+    }
+
+    @Override
+    public void delete(OrderRow row) {
+        write(row, DELETED);
+    }
+
+    @Override
+    public void forEachLive(RowVisitor visitor) {
+        for (long slot = 0; slot < size; slot++) {
+            MappedByteBuffer chunk = chunks[(int) (slot / CHUNK_RECORDS)];
+            int offset = (int) (slot % CHUNK_RECORDS) * RECORD_BYTES;
+            if (chunk.getInt(offset + STATE) == LIVE) {
+                visitor.visit(chunk.getLong(offset + CLIENT), (chunk.getInt(offset + FLAGS) & NO_COST) == 0,
+                        chunk.getLong(offset + COST), chunk.getInt(offset + COST_SCALE), chunk.getLong(offset + CREATE_AT));
+            }
+        }
+    }
+
+    void force() {
+        header.force();
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void write(OrderRow row, int state) {
+        long slot = row.id() - 1;
+        MappedByteBuffer[] mapped = chunks;
+        int chunkIndex = (int) (slot / CHUNK_RECORDS);
+        if (chunkIndex >= mapped.length) {
+            mapped = Arrays.copyOf(mapped, chunkIndex + 1);
+            for (int i = chunks.length; i < mapped.length; i++) {
+                mapped[i] = mapChunk(i);
+            }
+            chunks = mapped;
+        }
+
+        MappedByteBuffer chunk = mapped[chunkIndex];
+        int offset = (int) (slot % CHUNK_RECORDS) * RECORD_BYTES;
+        long sequence = (long) LONGS.get(chunk, offset + SEQUENCE);
+        LONGS.setOpaque(chunk, offset + SEQUENCE, sequence + 1);
+        VarHandle.storeStoreFence();
+
+        chunk.putInt(offset + STATE, state);
+        chunk.putInt(offset + PRODUCT, row.productId());
+        chunk.putLong(offset + CLIENT, row.clientId());
+        chunk.putLong(offset + COST, row.costUnscaled());
+        chunk.putInt(offset + COST_SCALE, row.costScale());
+        chunk.putInt(offset + FLAGS, row.hasCost() ? 0 : NO_COST);
+        chunk.putLong(offset + CREATE_AT, row.createAt());
+        chunk.putLong(offset + UPDATE_AT, row.updateAt());
+        chunk.putLong(offset + VERSION, row.version());
+
+        LONGS.setRelease(chunk, offset + SEQUENCE, sequence + 2);
+        if (slot >= size) {
+            header.putLong(SIZE, slot + 1);
+            size = slot + 1;
+        }
+    }
+
+    /**
+     * Запись, которую писатель не закончил до остановки процесса, осталась с нечётным счётчиком:
+     * её поля могут быть наполовину новыми, поэтому такая запись помечается удалённой.
+     * Номер товара, которого нет в словаре, сбрасывается: заказ остаётся без названия товара.
+     */
+    private void repair(Path file, int knownProducts) {
+        long torn = 0;
+        long unknownProducts = 0;
+        for (long slot = 0; slot < size; slot++) {
+            MappedByteBuffer chunk = chunks[(int) (slot / CHUNK_RECORDS)];
+            int offset = (int) (slot % CHUNK_RECORDS) * RECORD_BYTES;
+            long sequence = chunk.getLong(offset + SEQUENCE);
+            if ((sequence & 1) != 0) {
+                chunk.putInt(offset + STATE, DELETED);
+                chunk.putLong(offset + SEQUENCE, sequence + 1);
+                torn++;
+            } else if (chunk.getInt(offset + STATE) == LIVE && !known(chunk.getInt(offset + PRODUCT), knownProducts)) {
+                chunk.putInt(offset + PRODUCT, ProductDictionary.NONE);
+                unknownProducts++;
+            }
+        }
+
+        if (torn > 0 || unknownProducts > 0) {
+            log.warn("Файл заказов {}: незавершённых записей удалено {}, неизвестных товаров сброшено {}", file, torn, unknownProducts);
+        }
+    }
+
+    private static boolean known(int productId, int knownProducts) {
+        return productId >= ProductDictionary.NONE && productId < knownProducts;
+    }
+
+    private MappedByteBuffer mapChunk(int index) {
+        return map(HEADER_BYTES + index * CHUNK_BYTES, CHUNK_BYTES);
+    }
+
+    private MappedByteBuffer map(long position, long length) {
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            return buffer;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Не удалось отобразить файл заказов в память", ex);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.rest.repository.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Хранилище заказов вне кучи ({@code app.order-store.type=mapped}): записи фиксированной ширины
+ * в отображённом в память файле {@link MappedOrderFile}, словарь товаров - в соседнем файле.
+ * После перезапуска файл отображается заново, без воспроизведения истории.
+ * <p>
+ * Клиенты остаются в {@link InMemoryClientRepository} и переживают перезапуск только с журналом,
+ * поэтому без {@code app.journal.enabled} файл заказов при старте очищается.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.order-store.type", havingValue = "mapped")
+public class MappedOrderRepository extends RowOrderRepository {
+
+    private static final String ORDERS_FILE = "orders.dat";
+
+    private static final String PRODUCTS_FILE = "products.dat";
+
+    private final MappedOrderFile orders;
+
+    private final ProductDictionary products;
+
+    public MappedOrderRepository(@Value("${app.order-store.mapped.directory:./data/orders}") Path directory,
+                                 @Value("${app.journal.enabled:false}") boolean clientsDurable) throws IOException {
+        this(directory, open(directory, clientsDurable));
+        log.info("Хранилище заказов {} открыто: ячеек {}", directory, slots());
+    }
+
+    /**
+     * Словарь открывается первым: записи заказов проверяются по его размеру.
+     */
+    private MappedOrderRepository(Path directory, ProductDictionary products) throws IOException {
+        this(new MappedOrderFile(directory.resolve(ORDERS_FILE), products.size()), products);
+    }
+
+    private MappedOrderRepository(MappedOrderFile orders, ProductDictionary products) {
+        super(orders, products);
+        this.orders = orders;
+        this.products = products;
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-store.mapped.sync-interval:1s}")
+    public void sync() throws IOException {
+        products.force();
+        orders.force();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            products.close();
+            orders.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static ProductDictionary open(Path directory, boolean clientsDurable) throws IOException {
+        Files.createDirectories(directory);
+        if (!clientsDurable && Files.exists(directory.resolve(ORDERS_FILE))) {
+            log.info("Журнал клиентов выключен, хранилище заказов {} очищено", directory);
+            Files.delete(directory.resolve(ORDERS_FILE));
+            Files.deleteIfExists(directory.resolve(PRODUCTS_FILE));
+        }
+
+        return new ProductDictionary(directory.resolve(PRODUCTS_FILE));
+    }
+}
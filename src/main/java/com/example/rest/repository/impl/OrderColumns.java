@@ -0,0 +1,148 @@
+package com.example.rest.repository.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+/**
+ * Записи заказов по столбцам: каждое поле - свой примитивный массив в кусках по {@value #CHUNK_RECORDS} записей.
+ * ID не хранится, он равен номеру ячейки плюс один: запись занимает 54 байта (шесть {@code long}, {@code int} и два {@code byte}).
+ * Куски добавляются по мере роста и не копируются.
+ * Каждую запись охраняет счётчик (seqlock): нечётный на время изменения, читатель повторяет чтение,
+ * если счётчик поменялся.
+ */
+final class OrderColumns implements OrderRows {
+
+    private static final int CHUNK_RECORDS = 1 << 12;
+
+    private static final byte LIVE = 1;
+
+    private static final byte DELETED = 2;
+
+    private static final byte NO_COST = 4;
+
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private volatile Chunk[] chunks = new Chunk[0];
+
+    private volatile long size;
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public OrderRow read(long slot, RowFilter filter) {
+        if (slot < 0 || slot >= size) {
+            return null;
+        }
+
+        Chunk chunk = chunks[(int) (slot / CHUNK_RECORDS)];
+        int index = (int) (slot % CHUNK_RECORDS);
+        while (true) {
+            long before = (long) SEQUENCES.getAcquire(chunk.sequence, index);
+            if ((before & 1) == 0) {
+                byte state = chunk.state[index];
+                long clientId = chunk.clientId[index];
+                int productId = chunk.productId[index];
+                long cost = chunk.cost[index];
+                byte costScale = chunk.costScale[index];
+                long createAt = chunk.createAt[index];
+                long updateAt = chunk.updateAt[index];
+                long version = chunk.version[index];
+                VarHandle.loadLoadFence();
+                if ((long) SEQUENCES.getOpaque(chunk.sequence, index) == before) {
+                    boolean hasCost = (state & NO_COST) == 0;
+                    if ((state & LIVE) == 0 || !filter.test(slot + 1, clientId, productId, hasCost, cost, costScale, createAt, updateAt)) {
+                        return null;
+                    }
+
+                    return new OrderRow(slot + 1, clientId, productId, hasCost, cost, costScale, createAt, updateAt, version);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public void write(OrderRow row) {
+        write(row, LIVE);
+    }
+
+    @Override
+    public void delete(OrderRow row) {
+        write(row, DELETED);
+    }
+
+    @Override
+    public void forEachLive(RowVisitor visitor) {
+        for (long slot = 0; slot < size; slot++) {
+            Chunk chunk = chunks[(int) (slot / CHUNK_RECORDS)];
+            int index = (int) (slot % CHUNK_RECORDS);
+            byte state = chunk.state[index];
+            if ((state & LIVE) != 0) {
+                visitor.visit(chunk.clientId[index], (state & NO_COST) == 0, chunk.cost[index], chunk.costScale[index], chunk.createAt[index]);
+            }
+        }
+    }
+
+    private void write(OrderRow row, byte state) {
+        if (row.costScale() != (byte) row.costScale()) {
+            throw new IllegalArgumentException(MessageFormat.format("Масштаб стоимости {0} не помещается в хранилище", row.costScale()));
+        }
+
+        long slot = row.id() - 1;
+        Chunk[] current = chunks;
+        int chunkIndex = (int) (slot / CHUNK_RECORDS);
+        if (chunkIndex >= current.length) {
+            current = Arrays.copyOf(current, chunkIndex + 1);
+            for (int i = chunks.length; i < current.length; i++) {
+                current[i] = new Chunk();
+            }
+            chunks = current;
+        }
+
+        Chunk chunk = current[chunkIndex];
+        int index = (int) (slot % CHUNK_RECORDS);
+        long sequence = chunk.sequence[index];
+        SEQUENCES.setOpaque(chunk.sequence, index, sequence + 1);
+        VarHandle.storeStoreFence();
+
+        chunk.state[index] = (byte) (row.hasCost() ? state : state | NO_COST);
+        chunk.clientId[index] = row.clientId();
+        chunk.productId[index] = row.productId();
+        chunk.cost[index] = row.costUnscaled();
+        chunk.costScale[index] = (byte) row.costScale();
+        chunk.createAt[index] = row.createAt();
+        chunk.updateAt[index] = row.updateAt();
+        chunk.version[index] = row.version();
+
+        SEQUENCES.setRelease(chunk.sequence, index, sequence + 2);
+        if (slot >= size) {
+            size = slot + 1;
+        }
+    }
+
+    private static final class Chunk {
+
+        final long[] sequence = new long[CHUNK_RECORDS];
+
+        final long[] clientId = new long[CHUNK_RECORDS];
+
+        final long[] cost = new long[CHUNK_RECORDS];
+
+        final long[] createAt = new long[CHUNK_RECORDS];
+
+        final long[] updateAt = new long[CHUNK_RECORDS];
+
+        final long[] version = new long[CHUNK_RECORDS];
+
+        final int[] productId = new int[CHUNK_RECORDS];
+
+        final byte[] costScale = new byte[CHUNK_RECORDS];
+
+        final byte[] state = new byte[CHUNK_RECORDS];
+    }
+}
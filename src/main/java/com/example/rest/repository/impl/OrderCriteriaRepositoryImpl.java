@@ -0,0 +1,94 @@
+package com.example.rest.repository.impl;
+
+import com.example.rest.model.Order;
+import com.example.rest.model.OrderStats;
+import com.example.rest.repository.OrderCriteriaRepository;
+import com.example.rest.web.model.OrderStatsGroupBy;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class OrderCriteriaRepositoryImpl implements OrderCriteriaRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public void forEach(Specification<Order> specification, int fetchSize, Consumer<Order> action) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Order> query = criteriaBuilder.createQuery(Order.class);
+        Root<Order> root = query.from(Order.class);
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        try (Stream<Order> orders = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            int processed = 0;
+
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                action.accept(order);
+
+                if (++processed % fetchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<OrderStats> stats(Specification<Order> specification, OrderStatsGroupBy groupBy) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Order> root = query.from(Order.class);
+
+        Expression<?> key = switch (groupBy) {
+            case CLIENT -> root.get("client").get("id");
+            case PRODUCT -> root.get("product");
+            default -> criteriaBuilder.function(groupBy.getBucketFunction(), Instant.class, root.get("createAt"));
+        };
+        Expression<BigDecimal> cost = root.get("cost");
+
+        query.multiselect(
+                        key,
+                        criteriaBuilder.count(root),
+                        criteriaBuilder.count(cost),
+                        criteriaBuilder.sum(cost),
+                        criteriaBuilder.min(cost),
+                        criteriaBuilder.max(cost))
+                .groupBy(key)
+                .orderBy(criteriaBuilder.asc(key));
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(tuple -> OrderStats.of(
+                        tuple.get(0),
+                        tuple.get(1, Long.class),
+                        tuple.get(2, Long.class),
+                        tuple.get(3, BigDecimal.class),
+                        tuple.get(4, BigDecimal.class),
+                        tuple.get(5, BigDecimal.class)))
+                .toList();
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.rest.repository.impl;
+
+import com.example.rest.model.Order;
+import com.example.rest.web.model.OrderCursor;
+import com.example.rest.web.model.OrderFilter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Вторичные индексы заказов для in-memory хранилища.
+ * Индексы хранят только идентификаторы, поэтому найденные кандидаты всегда
+ * нужно перепроверять фильтром на актуальном объекте заказа.
+ */
+class OrderIndex {
+
+    private final Map<Long, Set<Long>> byClientId = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Long>> byProduct = new ConcurrentHashMap<>();
+
+    private final TextIndex byProductText = new TextIndex();
+
+    private final NavigableSet<Entry<BigDecimal>> byCost = new ConcurrentSkipListSet<>();
+
+    private final NavigableSet<Entry<Instant>> byCreateAt = new ConcurrentSkipListSet<>();
+
+    private final NavigableSet<Entry<Instant>> byUpdateAt = new ConcurrentSkipListSet<>();
+
+    void add(Values values) {
+        addTo(byClientId, values.clientId(), values.id());
+        addTo(byProduct, values.product(), values.id());
+        byProductText.add(values.product(), values.id());
+        addTo(byCost, values.cost(), values.id());
+        addTo(byCreateAt, values.createAt(), values.id());
+        addTo(byUpdateAt, values.updateAt(), values.id());
+    }
+
+    void remove(Values values) {
+        removeFrom(byClientId, values.clientId(), values.id());
+        removeFrom(byProduct, values.product(), values.id());
+        byProductText.remove(values.product(), values.id());
+        removeFrom(byCost, values.cost(), values.id());
+        removeFrom(byCreateAt, values.createAt(), values.id());
+        removeFrom(byUpdateAt, values.updateAt(), values.id());
+    }
+
+    void replace(Values previous, Values current) {
+        Long id = current.id();
+
+        if (!Objects.equals(previous.clientId(), current.clientId())) {
+            addTo(byClientId, current.clientId(), id);
+            removeFrom(byClientId, previous.clientId(), id);
+        }
+        if (!Objects.equals(previous.product(), current.product())) {
+            addTo(byProduct, current.product(), id);
+            removeFrom(byProduct, previous.product(), id);
+            byProductText.add(current.product(), id);
+            byProductText.remove(previous.product(), id);
+        }
+        replaceIn(byCost, previous.cost(), current.cost(), id);
+        replaceIn(byCreateAt, previous.createAt(), current.createAt(), id);
+        replaceIn(byUpdateAt, previous.updateAt(), current.updateAt(), id);
+    }
+
+    Stream<Long> findByClientId(Long clientId) {
+        return byClientId.getOrDefault(clientId, Set.of()).stream();
+    }
+
+    /**
+     * Кандидаты по самому избирательному из точных условий: клиенту, товару или поиску по названию товара.
+     */
+    Optional<Stream<Long>> findByEquality(OrderFilter filter) {
+        return smallestExact(filter).map(Set::stream);
+    }
+
+    /**
+     * Кандидаты по самому избирательному индексу. Размеры множеств точных условий известны сразу.
+     * Диапазоны по стоимости и датам обходятся с начала по очереди, пока один из них не закончится
+     * или не перерастёт лучшее точное множество, поэтому сравнение стоит порядка размера выбранного
+     * кандидата, а не всего диапазона.
+     */
+    Optional<Stream<Long>> find(OrderFilter filter) {
+        Optional<Set<Long>> exact = smallestExact(filter);
+        List<NavigableSet<? extends Entry<?>>> ranges = ranges(filter);
+        if (ranges.isEmpty()) {
+            return exact.map(Set::stream);
+        }
+        if (exact.isEmpty() && ranges.size() == 1) {
+            return Optional.of(ids(ranges.get(0)));
+        }
+
+        Optional<NavigableSet<? extends Entry<?>>> range = shortest(ranges, exact.map(Set::size).orElse(Integer.MAX_VALUE));
+        if (range.isPresent()) {
+            return Optional.of(ids(range.get()));
+        }
+
+        return exact.map(Set::stream);
+    }
+
+    private Optional<Set<Long>> smallestExact(OrderFilter filter) {
+        return Stream.of(
+                        filter.getClientId() == null ? null : byClientId.getOrDefault(filter.getClientId(), Set.<Long>of()),
+                        filter.getProductName() == null ? null : byProduct.getOrDefault(filter.getProductName(), Set.<Long>of()),
+                        filter.getProductPrefix() == null ? null : byProductText.startingWith(filter.getProductPrefix()).orElse(null),
+                        filter.getProductContains() == null ? null : byProductText.containing(filter.getProductContains()).orElse(null))
+                .filter(Objects::nonNull)
+                .min(Comparator.comparingInt(Set::size));
+    }
+
+    private List<NavigableSet<? extends Entry<?>>> ranges(OrderFilter filter) {
+        List<NavigableSet<? extends Entry<?>>> ranges = new ArrayList<>(3);
+
+        if (filter.getMinCost() != null || filter.getMaxCost() != null) {
+            if (filter.getMinCost() == null) {
+                ranges.add(byCost.headSet(Entry.last(filter.getMaxCost()), true));
+            } else if (filter.getMaxCost() == null) {
+                ranges.add(byCost.tailSet(Entry.first(filter.getMinCost()), true));
+            } else {
+                ranges.add(byCost.subSet(Entry.first(filter.getMinCost()), true, Entry.last(filter.getMaxCost()), true));
+            }
+        }
+        if (filter.getCreatedBefore() != null) {
+            ranges.add(byCreateAt.headSet(Entry.last(filter.getCreatedBefore()), true));
+        }
+        if (filter.getUpdatedBefore() != null) {
+            ranges.add(byUpdateAt.headSet(Entry.last(filter.getUpdatedBefore()), true));
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Самый короткий диапазон, если он меньше {@code limit}: итераторы продвигаются по шагу,
+     * первый закончившийся и есть самый короткий.
+     */
+    private static Optional<NavigableSet<? extends Entry<?>>> shortest(List<NavigableSet<? extends Entry<?>>> ranges, int limit) {
+        List<Iterator<? extends Entry<?>>> iterators = new ArrayList<>(ranges.size());
+        for (NavigableSet<? extends Entry<?>> range : ranges) {
+            iterators.add(range.iterator());
+        }
+
+        for (int step = 0; step < limit; step++) {
+            for (int i = 0; i < iterators.size(); i++) {
+                if (!iterators.get(i).hasNext()) {
+                    return Optional.of(ranges.get(i));
+                }
+                iterators.get(i).next();
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    Stream<Long> findCreatedAfter(OrderCursor cursor) {
+        if (cursor == null) {
+            return ids(byCreateAt);
+        }
+
+        return ids(byCreateAt.tailSet(new Entry<>(cursor.createAt(), cursor.id()), false));
+    }
+
+    private static Stream<Long> ids(NavigableSet<? extends Entry<?>> entries) {
+        return entries.stream().map(Entry::id);
+    }
+
+    private static <K> void addTo(Map<K, Set<Long>> index, K key, Long id) {
+        if (key == null) {
+            return;
+        }
+
+        index.compute(key, (k, ids) -> {
+            Set<Long> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            result.add(id);
+            return result;
+        });
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Long>> index, K key, Long id) {
+        if (key == null) {
+            return;
+        }
+
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static <K extends Comparable<? super K>> void addTo(NavigableSet<Entry<K>> index, K key, Long id) {
+        if (key != null) {
+            index.add(new Entry<>(key, id));
+        }
+    }
+
+    private static <K extends Comparable<? super K>> void removeFrom(NavigableSet<Entry<K>> index, K key, Long id) {
+        if (key != null) {
+            index.remove(new Entry<>(key, id));
+        }
+    }
+
+    private static <K extends Comparable<? super K>> void replaceIn(NavigableSet<Entry<K>> index, K previous, K current, Long id) {
+        if (previous == null ? current == null : current != null && previous.compareTo(current) == 0) {
+            return;
+        }
+
+        addTo(index, current, id);
+        removeFrom(index, previous, id);
+    }
+
+    record Values(Long id, Long clientId, String product, BigDecimal cost, Instant createAt, Instant updateAt) {
+
+        static Values of(Order order) {
+            return new Values(
+                    order.getId(),
+                    order.getClient() == null ? null : order.getClient().getId(),
+                    order.getProduct(),
+                    order.getCost(),
+                    order.getCreateAt(),
+                    order.getUpdateAt());
+        }
+    }
+
+    private record Entry<K extends Comparable<? super K>>(K key, long id) implements Comparable<Entry<K>> {
+
+        static <K extends Comparable<? super K>> Entry<K> first(K key) {
+            return new Entry<>(key, Long.MIN_VALUE);
+        }
+
+        static <K extends Comparable<? super K>> Entry<K> last(K key) {
+            return new Entry<>(key, Long.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(Entry<K> other) {
+            int compared = key.compareTo(other.key);
+
+            return compared != 0 ? compared : Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.rest.repository.impl;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Заказ в виде примитивных полей: время - наносекунды от эпохи, стоимость - немасштабированное значение и масштаб,
+ * товар - номер в {@link ProductDictionary}.
+ */
+record OrderRow(long id, long clientId, int productId, boolean hasCost, long costUnscaled, int costScale,
+                long createAt, long updateAt, long version) {
+
+    static final long NO_CLIENT = 0;
+
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    BigDecimal cost() {
+        return hasCost ? BigDecimal.valueOf(costUnscaled, costScale) : null;
+    }
+
+    Long client() {
+        return clientId == NO_CLIENT ? null : clientId;
+    }
+
+    static long toNanos(Instant instant) {
+        if (instant == null) {
+            return NO_TIME;
+        }
+
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+        } catch (ArithmeticException ex) {
+            return instant.getEpochSecond() < 0 ? NO_TIME + 1 : Long.MAX_VALUE;
+        }
+    }
+
+    static Instant toInstant(long nanos) {
+        return nanos == NO_TIME ? null : Instant.ofEpochSecond(0, nanos);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.rest.repository.impl;
+
+/**
+ * Хранилище записей заказов: заказ с ID {@code n} лежит в ячейке {@code n - 1}, удалённый остаётся в ней с пометкой.
+ * Писатель один - вызывающий держит блокировку, читатели не блокируются и всегда видят запись целиком.
+ */
+interface OrderRows {
+
+    /**
+     * Число занятых ячеек, включая удалённые.
+     */
+    long size();
+
+    /**
+     * Читает запись или возвращает {@code null}, если ячейка пуста или заказ удалён.
+     */
+    default OrderRow read(long slot) {
+        return read(slot, RowFilter.ALL);
+    }
+
+    /**
+     * Читает запись, если она подходит под фильтр, иначе возвращает {@code null}.
+     */
+    OrderRow read(long slot, RowFilter filter);
+
+    /**
+     * Записывает заказ в ячейку {@code row.id() - 1}. Вызывается только писателем.
+     */
+    void write(OrderRow row);
+
+    /**
+     * Помечает заказ удалённым. Вызывается только писателем.
+     */
+    void delete(OrderRow row);
+
+    /**
+     * Передаёт поля живых записей без создания объектов. Вызывается только писателем, например при открытии хранилища.
+     */
+    void forEachLive(RowVisitor visitor);
+
+    /**
+     * Поля записи, из которых складываются сводки клиентов.
+     */
+    @FunctionalInterface
+    interface RowVisitor {
+
+        void visit(long clientId, boolean hasCost, long costUnscaled, int costScale, long createAt);
+    }
+}
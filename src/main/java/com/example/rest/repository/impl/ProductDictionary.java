@@ -0,0 +1,150 @@
+package com.example.rest.repository.impl;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Словарь названий товаров для {@link OrderRows}: в записи заказа хранится только номер названия.
+ * Если словарь связан с файлом, новые названия дописываются в него как {@code [длина][UTF-8]},
+ * а при открытии файл читается целиком. Добавляет названия один писатель, читать можно из любых потоков.
+ */
+final class ProductDictionary implements Closeable {
+
+    static final int NONE = -1;
+
+    private final FileChannel channel;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private volatile String[] names;
+
+    ProductDictionary() {
+        channel = null;
+        names = new String[0];
+    }
+
+    ProductDictionary(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        List<String> loaded = new ArrayList<>();
+        long size = channel.size();
+        long valid = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        while (valid + Integer.BYTES <= size) {
+            int length = in.readInt();
+            if (length < 0 || valid + Integer.BYTES + length > size) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            loaded.add(new String(bytes, StandardCharsets.UTF_8));
+            valid += Integer.BYTES + length;
+        }
+        channel.truncate(valid);
+        channel.position(valid);
+
+        names = loaded.toArray(String[]::new);
+        for (int id = 0; id < names.length; id++) {
+            ids.put(names[id], id);
+        }
+    }
+
+    /**
+     * Номер названия или {@link #NONE}, если такого товара нет.
+     */
+    int idOf(String name) {
+        return name == null ? NONE : ids.getOrDefault(name, NONE);
+    }
+
+    /**
+     * Номер названия, при необходимости добавленного в словарь. Вызывается только писателем.
+     */
+    int intern(String name) {
+        if (name == null) {
+            return NONE;
+        }
+
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        if (channel != null) {
+            append(name);
+        }
+
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[names.length] = name;
+        names = grown;
+        ids.put(name, names.length - 1);
+
+        return names.length - 1;
+    }
+
+    String name(int id) {
+        return id == NONE ? null : names[id];
+    }
+
+    /**
+     * Число названий: номера товаров в записях меньше него.
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Номера названий, подходящих под условие: проверка идёт по словарю, а не по каждому заказу.
+     */
+    BitSet matching(Predicate<String> predicate) {
+        String[] snapshot = names;
+        BitSet matching = new BitSet(snapshot.length);
+        for (int id = 0; id < snapshot.length; id++) {
+            if (predicate.test(snapshot[id])) {
+                matching.set(id);
+            }
+        }
+
+        return matching;
+    }
+
+    void force() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void append(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes).flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Не удалось дописать словарь товаров", ex);
+        }
+    }
+}
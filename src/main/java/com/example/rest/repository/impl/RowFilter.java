@@ -0,0 +1,98 @@
+package com.example.rest.repository.impl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Условия отбора над примитивными полями {@link OrderRow}. Хранилище проверяет их до создания записи,
+ * поэтому неподходящие заказы не порождают объектов. Собирается в одном потоке, после этого только читается.
+ */
+final class RowFilter {
+
+    static final RowFilter ALL = new RowFilter();
+
+    private long[] clientIds;
+
+    private BitSet productIds;
+
+    private CostRange costRange;
+
+    private long createdBefore = Long.MAX_VALUE;
+
+    private boolean byCreatedBefore;
+
+    private long updatedBefore = Long.MAX_VALUE;
+
+    private boolean byUpdatedBefore;
+
+    private long afterCreateAt;
+
+    private long afterId;
+
+    private boolean byCursor;
+
+    RowFilter clients(long... clientIds) {
+        this.clientIds = clientIds.clone();
+        Arrays.sort(this.clientIds);
+        return this;
+    }
+
+    RowFilter products(BitSet productIds) {
+        this.productIds = this.productIds == null ? productIds : intersection(this.productIds, productIds);
+        return this;
+    }
+
+    RowFilter cost(CostRange costRange) {
+        this.costRange = costRange;
+        return this;
+    }
+
+    RowFilter createdBefore(long createdBefore) {
+        this.createdBefore = createdBefore;
+        this.byCreatedBefore = true;
+        return this;
+    }
+
+    RowFilter updatedBefore(long updatedBefore) {
+        this.updatedBefore = updatedBefore;
+        this.byUpdatedBefore = true;
+        return this;
+    }
+
+    /**
+     * Только заказы после курсора в порядке {@code (createAt, id)}.
+     */
+    RowFilter after(long createAt, long id) {
+        this.afterCreateAt = createAt;
+        this.afterId = id;
+        this.byCursor = true;
+        return this;
+    }
+
+    boolean test(long id, long clientId, int productId, boolean hasCost, long cost, int costScale, long createAt, long updateAt) {
+        if (clientIds != null && (clientIds.length == 1 ? clientIds[0] != clientId : Arrays.binarySearch(clientIds, clientId) < 0)) {
+            return false;
+        }
+        if (productIds != null && (productId < 0 || !productIds.get(productId))) {
+            return false;
+        }
+        if (costRange != null && !costRange.test(hasCost, cost, costScale)) {
+            return false;
+        }
+        if (byCreatedBefore && (createAt == OrderRow.NO_TIME || createAt > createdBefore)) {
+            return false;
+        }
+        if (byUpdatedBefore && (updateAt == OrderRow.NO_TIME || updateAt > updatedBefore)) {
+            return false;
+        }
+
+        return !byCursor || createAt > afterCreateAt || (createAt == afterCreateAt && id > afterId);
+    }
+
+    private static BitSet intersection(BitSet first, BitSet second) {
+        BitSet result = (BitSet) first.clone();
+        result.and(second);
+
+        return result;
+    }
+}
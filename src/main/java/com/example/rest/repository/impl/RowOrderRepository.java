@@ -0,0 +1,381 @@
+package com.example.rest.repository.impl;
+
+import com.example.rest.exception.EntityNotFoundException;
+import com.example.rest.exception.PreconditionFailedException;
+import com.example.rest.model.Client;
+import com.example.rest.model.ClientOrderSummary;
+import com.example.rest.model.Order;
+import com.example.rest.repository.ClientRepository;
+import com.example.rest.repository.OrderPredicates;
+import com.example.rest.repository.OrderRepository;
+import com.example.rest.repository.journal.JournalRecord;
+import com.example.rest.repository.journal.RepositoryJournal;
+import com.example.rest.utils.BeanUtils;
+import com.example.rest.web.model.OrderCursor;
+import com.example.rest.web.model.OrderFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище заказов из записей {@link OrderRow} с примитивными полями: условия фильтра ({@link RowFilter})
+ * проверяются по полям записи, объекты создаются только для результата. Изменения выполняются
+ * под одной блокировкой, чтение не блокируется. Где лежат записи, определяет {@link OrderRows}.
+ */
+public abstract class RowOrderRepository implements OrderRepository {
+
+    private static final int PARALLEL_SCAN_SLOTS = 8192;
+
+    private static final Comparator<OrderRow> CURSOR_ORDER = Comparator.comparingLong(OrderRow::createAt).thenComparingLong(OrderRow::id);
+
+    private ClientRepository clientRepository;
+
+    private RepositoryJournal journal = RepositoryJournal.NOOP;
+
+    protected final ReentrantLock writeLock = new ReentrantLock();
+
+    private final OrderRows orders;
+
+    private final ProductDictionary products;
+
+    private final ClientOrderSummaries summaries = new ClientOrderSummaries();
+
+    RowOrderRepository(OrderRows orders, ProductDictionary products) {
+        this.orders = orders;
+        this.products = products;
+        summaries.load(orders);
+    }
+
+    /**
+     * Число занятых ячеек, включая удалённые заказы.
+     */
+    protected long slots() {
+        return orders.size();
+    }
+
+    @Override
+    public List<Order> findAll() {
+        return rows().map(this::toOrder).toList();
+    }
+
+    @Override
+    public List<Order> filterBy(OrderFilter filter) {
+        RowFilter matching = matching(filter);
+
+        if (filter.usesCursor()) {
+            OrderCursor cursor = OrderCursor.decode(filter.getCursor());
+            if (cursor != null) {
+                matching.after(OrderRow.toNanos(cursor.createAt()), cursor.id());
+            }
+
+            return rows(matching)
+                    .sorted(CURSOR_ORDER)
+                    .limit(filter.getPageSize())
+                    .map(this::toOrder)
+                    .toList();
+        }
+
+        return rows(matching)
+                .skip((long) filter.getPageNumber() * filter.getPageSize())
+                .limit(filter.getPageSize())
+                .map(this::toOrder)
+                .toList();
+    }
+
+    @Override
+    public void forEach(OrderFilter filter, Consumer<Order> action) {
+        rows(matching(filter)).map(this::toOrder).forEach(action);
+    }
+
+    /**
+     * Ячейки читаются без блокировки, поэтому большое хранилище сводится параллельно по диапазонам ячеек.
+     */
+    @Override
+    public <R> R collect(OrderFilter filter, Collector<Order, ?, R> collector) {
+        Stream<OrderRow> rows = rows(matching(filter));
+
+        return (orders.size() < PARALLEL_SCAN_SLOTS ? rows : rows.parallel()).map(this::toOrder).collect(collector);
+    }
+
+    @Override
+    public Optional<Order> findById(Long id) {
+        return Optional.ofNullable(id == null ? null : orders.read(id - 1)).map(this::toOrder);
+    }
+
+    @Override
+    public List<Order> findAllByClientIdIn(Collection<Long> clientIds) {
+        long[] ids = clientIds.stream().filter(Objects::nonNull).mapToLong(Long::longValue).sorted().toArray();
+
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        return rows(new RowFilter().clients(ids))
+                .map(this::toOrder)
+                .toList();
+    }
+
+    @Override
+    public ClientOrderSummary findSummaryByClientId(Long clientId) {
+        return summaries.get(clientId);
+    }
+
+    @Override
+    public Order save(Order order) {
+        Long clientId = order.getClient().getId();
+        Client client = clientRepository.findById(clientId)
+                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден!"));
+
+        long sequence;
+        writeLock.lock();
+        try {
+            order.setClient(client);
+            order.setId(orders.size() + 1);
+            Instant now = Instant.now();
+            order.setCreateAt(now);
+            order.setUpdateAt(now);
+            order.setVersion(0L);
+
+            OrderRow row = toRow(order);
+            orders.write(row);
+            sequence = append(JournalRecord.OrderPut.of(order), () -> orders.delete(row));
+            summaries.add(clientId, order.getCost(), now);
+        } finally {
+            writeLock.unlock();
+        }
+
+        journal.awaitDurable(sequence);
+        return order;
+    }
+
+    @Override
+    public Order update(Order order) {
+        return update(order.getId(), order, null);
+    }
+
+    @Override
+    public Order update(Order order, long expectedVersion) {
+        return update(order.getId(), order, expectedVersion);
+    }
+
+    private Order update(Long orderId, Order order, Long expectedVersion) {
+        Order currentOrder;
+        long sequence;
+        writeLock.lock();
+        try {
+            OrderRow previous = orderId == null ? null : orders.read(orderId - 1);
+            if (previous == null) {
+                throw new EntityNotFoundException(MessageFormat.format("Заказ по ID: {0} не найден!", orderId));
+            }
+            if (expectedVersion != null && expectedVersion != previous.version()) {
+                throw new PreconditionFailedException(MessageFormat.format("Заказ по ID: {0} был изменён другим запросом!", orderId));
+            }
+
+            currentOrder = toOrder(previous);
+            BeanUtils.copyNonNullProperties(order, currentOrder);
+            currentOrder.setUpdateAt(Instant.now());
+            currentOrder.setId(orderId);
+            currentOrder.setVersion(previous.version() + 1);
+
+            OrderRow current = toRow(currentOrder);
+            orders.write(current);
+            sequence = append(JournalRecord.OrderPut.of(currentOrder), () -> orders.write(previous));
+            if (previous.clientId() == current.clientId()) {
+                summaries.changeCost(current.client(), previous.cost(), current.cost());
+            } else {
+                removeFromSummary(previous);
+                summaries.add(current.client(), current.cost(), OrderRow.toInstant(current.createAt()));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        journal.awaitDurable(sequence);
+
+        return currentOrder;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        long sequence = 0;
+        writeLock.lock();
+        try {
+            OrderRow removed = id == null ? null : orders.read(id - 1);
+            if (removed != null) {
+                orders.delete(removed);
+                sequence = append(new JournalRecord.OrderDelete(id), () -> orders.write(removed));
+                removeFromSummary(removed);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        journal.awaitDurable(sequence);
+    }
+
+    @Override
+    public void deleteByIdIn(List<Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    /**
+     * Возвращает заказ из журнала при старте: без новой версии и без записи в журнал.
+     */
+    public void restore(Order order) {
+        writeLock.lock();
+        try {
+            OrderRow row = toRow(order);
+            orders.write(row);
+            summaries.add(row.client(), row.cost(), OrderRow.toInstant(row.createAt()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * ID заказа равен номеру ячейки, поэтому наибольший выданный ID - число ячеек, включая удалённые.
+     */
+    public long lastId() {
+        return orders.size();
+    }
+
+    /**
+     * Занимает ячейки до {@code lastId} пометкой удаления, если их ещё нет: ID удалённых до перезапуска заказов
+     * не выдаются повторно.
+     */
+    public void reserveIds(long lastId) {
+        writeLock.lock();
+        try {
+            if (lastId > orders.size()) {
+                orders.delete(new OrderRow(lastId, OrderRow.NO_CLIENT, ProductDictionary.NONE, false, 0, 0,
+                        OrderRow.NO_TIME, OrderRow.NO_TIME, 0));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Запись в журнал идёт под блокировкой писателя после изменения ячейки, поэтому снимок при уплотнении
+     * либо уже видит изменение, либо запись попадает в новое поколение журнала.
+     */
+    protected void setJournal(RepositoryJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Пишет изменение ячейки в журнал. Если журнал отклонил запись, ячейка возвращается к прежнему состоянию.
+     */
+    private long append(JournalRecord record, Runnable undo) {
+        try {
+            return journal.append(record);
+        } catch (RuntimeException ex) {
+            undo.run();
+            throw ex;
+        }
+    }
+
+    private void removeFromSummary(OrderRow row) {
+        summaries.remove(row.client(), row.cost(), OrderRow.toInstant(row.createAt()), () -> rows(new RowFilter().clients(row.clientId()))
+                .filter(other -> other.id() != row.id())
+                .mapToLong(OrderRow::createAt)
+                .filter(createAt -> createAt != OrderRow.NO_TIME)
+                .max()
+                .stream()
+                .mapToObj(OrderRow::toInstant)
+                .findFirst()
+                .orElse(null));
+    }
+
+    private Stream<OrderRow> rows() {
+        return rows(RowFilter.ALL);
+    }
+
+    private Stream<OrderRow> rows(RowFilter filter) {
+        return LongStream.range(0, orders.size()).mapToObj(slot -> orders.read(slot, filter)).filter(Objects::nonNull);
+    }
+
+    /**
+     * Условия {@link OrderPredicates#withFilter} по полям записи: товар сравнивается по номеру в словаре,
+     * поиск по названию товара проверяется один раз для каждого названия.
+     */
+    private RowFilter matching(OrderFilter filter) {
+        RowFilter matching = new RowFilter();
+
+        if (filter.getClientId() != null) {
+            matching.clients(filter.getClientId());
+        }
+        if (filter.getProductName() != null) {
+            int productId = products.idOf(filter.getProductName());
+            BitSet productIds = new BitSet();
+            if (productId != ProductDictionary.NONE) {
+                productIds.set(productId);
+            }
+            matching.products(productIds);
+        }
+        if (filter.getProductPrefix() != null || filter.getProductContains() != null) {
+            Predicate<Order> byText = OrderPredicates.byProductPrefix(filter.getProductPrefix())
+                    .and(OrderPredicates.byProductContains(filter.getProductContains()));
+            matching.products(products.matching(name -> byText.test(Order.builder().product(name).build())));
+        }
+        if (filter.getMinCost() != null || filter.getMaxCost() != null) {
+            matching.cost(new CostRange(filter.getMinCost(), filter.getMaxCost()));
+        }
+        if (filter.getCreatedBefore() != null) {
+            matching.createdBefore(OrderRow.toNanos(filter.getCreatedBefore()));
+        }
+        if (filter.getUpdatedBefore() != null) {
+            matching.updatedBefore(OrderRow.toNanos(filter.getUpdatedBefore()));
+        }
+
+        return matching;
+    }
+
+    private Order toOrder(OrderRow row) {
+        Client client = row.client() == null ? null : clientRepository.findById(row.client()).orElse(null);
+
+        return new Order(row.id(), products.name(row.productId()), row.cost(), client,
+                OrderRow.toInstant(row.createAt()), OrderRow.toInstant(row.updateAt()), row.version());
+    }
+
+    private OrderRow toRow(Order order) {
+        BigDecimal cost = order.getCost();
+        long unscaled = 0;
+        if (cost != null) {
+            try {
+                unscaled = cost.unscaledValue().longValueExact();
+            } catch (ArithmeticException ex) {
+                throw new IllegalArgumentException(MessageFormat.format("Стоимость заказа {0} не помещается в хранилище", cost));
+            }
+        }
+        Long clientId = order.getClient() == null ? null : order.getClient().getId();
+
+        return new OrderRow(
+                order.getId(),
+                clientId == null ? OrderRow.NO_CLIENT : clientId,
+                products.intern(order.getProduct()),
+                cost != null,
+                unscaled,
+                cost == null ? 0 : cost.scale(),
+                OrderRow.toNanos(order.getCreateAt()),
+                OrderRow.toNanos(order.getUpdateAt()),
+                order.getVersion());
+    }
+
+    @Autowired
+    public void setClientRepository(ClientRepository clientRepository) {
+        this.clientRepository = clientRepository;
+    }
+}
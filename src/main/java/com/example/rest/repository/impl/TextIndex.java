@@ -0,0 +1,106 @@
+package com.example.rest.repository.impl;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * N-граммный индекс строк для поиска по подстроке и префиксу без учёта регистра, как pg_trgm.
+ * Для каждой строки хранятся все её триграммы и префиксы длиной до трёх символов с маркером начала.
+ * Запрос выбирает самый короткий список кандидатов среди своих грамм; кандидатов, как и в
+ * {@link OrderIndex}, нужно перепроверять предикатом. Подстроку короче трёх символов индекс не ищет.
+ */
+class TextIndex {
+
+    private static final int GRAM = 3;
+
+    private static final char START = '\u0002';
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    void add(String text, long id) {
+        for (String gram : gramsOf(text)) {
+            postings.compute(gram, (key, ids) -> {
+                Set<Long> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                result.add(id);
+                return result;
+            });
+        }
+    }
+
+    void remove(String text, long id) {
+        for (String gram : gramsOf(text)) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    Optional<Stream<Long>> findContaining(String query) {
+        return containing(query).map(Set::stream);
+    }
+
+    Optional<Stream<Long>> findStartingWith(String query) {
+        return startingWith(query).map(Set::stream);
+    }
+
+    /**
+     * Кандидаты на совпадение по подстроке: самый короткий список среди триграмм запроса.
+     */
+    Optional<Set<Long>> containing(String query) {
+        String normalized = normalize(query);
+        if (normalized.length() < GRAM) {
+            return Optional.empty();
+        }
+
+        return Optional.of(smallest(trigramsOf(normalized)));
+    }
+
+    Optional<Set<Long>> startingWith(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Set<String> grams = trigramsOf(normalized);
+        grams.add(START + normalized.substring(0, Math.min(GRAM, normalized.length())));
+
+        return Optional.of(smallest(grams));
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private Set<Long> smallest(Set<String> grams) {
+        return grams.stream()
+                .map(gram -> postings.getOrDefault(gram, Set.of()))
+                .min(Comparator.comparingInt(Set::size))
+                .orElse(Set.of());
+    }
+
+    private static Set<String> gramsOf(String text) {
+        String normalized = normalize(text);
+        Set<String> grams = trigramsOf(normalized);
+        for (int length = 1; length <= Math.min(GRAM, normalized.length()); length++) {
+            grams.add(START + normalized.substring(0, length));
+        }
+
+        return grams;
+    }
+
+    private static Set<String> trigramsOf(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+
+        return grams;
+    }
+}
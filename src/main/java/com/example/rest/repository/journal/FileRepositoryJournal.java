@@ -0,0 +1,363 @@
+package com.example.rest.repository.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Журнал в файлах {@code journal-<поколение>.log} со снимками {@code snapshot-<поколение>.bin}.
+ * <p>
+ * Групповая фиксация: записи копируются в общий буфер, отдельный поток раз в {@code syncInterval}
+ * или при наборе {@code syncBytes} пишет буфер одним вызовом {@link FileChannel#write} и делает один
+ * {@code fsync} на всю пачку. Если включено {@code awaitSync}, {@link #awaitDurable} ждёт этого fsync.
+ * После ошибки записи журнал отклоняет новые записи: изменение, которое нельзя сохранить, не применяется.
+ * <p>
+ * Уплотнение начинает новое поколение журнала и пишет рядом снимок состояния. Снимок нечёткий:
+ * изменения, попавшие в него во время записи, есть и в новом поколении, а записи журнала
+ * идемпотентны, поэтому снимок плюс журнал его поколения дают точное состояние.
+ */
+@Slf4j
+public class FileRepositoryJournal implements RepositoryJournal, SmartLifecycle {
+
+    private static final Pattern FILE_NAME = Pattern.compile("(journal|snapshot)-(\\d{16})\\.(log|bin)");
+
+    private final Path directory;
+
+    private final long syncIntervalNanos;
+
+    private final int syncBytes;
+
+    private final boolean awaitSync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition flushRequested = lock.newCondition();
+
+    private final Condition synced = lock.newCondition();
+
+    private final ReentrantLock ioLock = new ReentrantLock();
+
+    private Batch pending = new Batch();
+
+    private Batch spare = new Batch();
+
+    private long appendedSequence;
+
+    private long syncedSequence;
+
+    private IOException failure;
+
+    private FileChannel channel;
+
+    private long generation;
+
+    private volatile long segmentSize;
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    public FileRepositoryJournal(Path directory, Duration syncInterval, int syncBytes, boolean awaitSync) {
+        this.directory = directory;
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.syncBytes = syncBytes;
+        this.awaitSync = awaitSync;
+    }
+
+    /**
+     * Читает последний снимок и журнал после него, отрезает недописанный хвост и открывает журнал для записи.
+     * Вызывается один раз до первой записи.
+     */
+    public void recover(Consumer<JournalRecord> sink) throws IOException {
+        Files.createDirectories(directory);
+
+        OptionalLong snapshot = generations("snapshot").max();
+        long from = snapshot.orElse(0);
+        if (snapshot.isPresent()) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(snapshotPath(from)), 1 << 16)) {
+                JournalCodec.readAll(in, sink);
+            }
+        }
+
+        List<Long> segments = generations("journal").filter(generation -> generation >= from).sorted().boxed().toList();
+        long valid = 0;
+        for (Long segment : segments) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(journalPath(segment)), 1 << 16)) {
+                valid = JournalCodec.readAll(in, sink);
+            }
+            long size = Files.size(journalPath(segment));
+            if (valid < size) {
+                log.warn("Журнал {} обрезан с {} до {} байт: последняя запись не была дописана", journalPath(segment), size, valid);
+            }
+        }
+
+        ioLock.lock();
+        try {
+            generation = segments.isEmpty() ? Math.max(1, from) : segments.get(segments.size() - 1);
+            channel = FileChannel.open(journalPath(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.truncate(segments.isEmpty() ? 0 : valid);
+            channel.position(channel.size());
+            segmentSize = channel.size();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    @Override
+    public long append(JournalRecord record) {
+        byte[] frame = JournalCodec.frame(record);
+
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new UncheckedIOException("Журнал недоступен для записи", failure);
+            }
+            pending.write(frame, 0, frame.length);
+            if (pending.size() >= syncBytes) {
+                flushRequested.signal();
+            }
+            return ++appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        if (!awaitSync) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            while (syncedSequence < sequence && failure == null) {
+                synced.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Журнал недоступен для записи", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Начинает новое поколение журнала и пишет снимок, который получает {@code state}.
+     * Старые поколения и снимки удаляются после того, как новый снимок записан на диск.
+     */
+    public void compact(Consumer<Consumer<JournalRecord>> state) throws IOException {
+        long snapshotGeneration = rotate();
+        Path temporary = directory.resolve(snapshotPath(snapshotGeneration).getFileName() + ".tmp");
+
+        try (FileChannel snapshot = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(snapshot), 1 << 16);
+            state.accept(record -> {
+                try {
+                    out.write(JournalCodec.frame(record));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            out.flush();
+            snapshot.force(true);
+        }
+        Files.move(temporary, snapshotPath(snapshotGeneration), StandardCopyOption.ATOMIC_MOVE);
+
+        for (String kind : List.of("journal", "snapshot")) {
+            for (long old : generations(kind).filter(generation -> generation < snapshotGeneration).toArray()) {
+                Files.deleteIfExists(kind.equals("journal") ? journalPath(old) : snapshotPath(old));
+            }
+        }
+        log.info("Журнал уплотнён в снимок поколения {}", snapshotGeneration);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("repository-journal").daemon().start(this::flushLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        lock.lock();
+        try {
+            flushRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        ioLock.lock();
+        try {
+            flush();
+            channel.close();
+        } catch (IOException ex) {
+            log.error("Не удалось закрыть журнал", ex);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushLoop() {
+        while (running) {
+            lock.lock();
+            try {
+                if (pending.size() < syncBytes) {
+                    flushRequested.awaitNanos(syncIntervalNanos);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            ioLock.lock();
+            try {
+                flush();
+            } finally {
+                ioLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Пишет накопленную пачку и делает fsync. Вызывается под {@link #ioLock}.
+     */
+    private void flush() {
+        Batch batch;
+        long target;
+        lock.lock();
+        try {
+            if (pending.size() == 0 || failure != null) {
+                return;
+            }
+            batch = pending;
+            pending = spare;
+            spare = batch;
+            target = appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+
+        IOException error = null;
+        try {
+            ByteBuffer buffer = batch.view();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            segmentSize = channel.size();
+        } catch (IOException ex) {
+            log.error("Не удалось записать журнал {}", journalPath(generation), ex);
+            error = ex;
+        } finally {
+            batch.reset();
+        }
+
+        lock.lock();
+        try {
+            if (error == null) {
+                syncedSequence = target;
+            } else {
+                failure = error;
+            }
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long rotate() throws IOException {
+        ioLock.lock();
+        try {
+            flush();
+            channel.close();
+            generation++;
+            channel = FileChannel.open(journalPath(generation), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            segmentSize = 0;
+
+            return generation;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private LongStream generations(String kind) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            long[] generations = files.map(path -> FILE_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .filter(matcher -> matcher.group(1).equals(kind))
+                    .mapToLong(matcher -> Long.parseLong(matcher.group(2)))
+                    .toArray();
+
+            return LongStream.of(generations);
+        }
+    }
+
+    private Path journalPath(long generation) {
+        return directory.resolve(String.format("journal-%016d.log", generation));
+    }
+
+    private Path snapshotPath(long generation) {
+        return directory.resolve(String.format("snapshot-%016d.bin", generation));
+    }
+
+    private static final class Batch extends ByteArrayOutputStream {
+
+        Batch() {
+            super(1 << 16);
+        }
+
+        ByteBuffer view() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
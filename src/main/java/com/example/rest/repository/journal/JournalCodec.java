@@ -0,0 +1,228 @@
+package com.example.rest.repository.journal;
+
+import com.example.rest.repository.journal.JournalRecord.ClientDelete;
+import com.example.rest.repository.journal.JournalRecord.ClientPut;
+import com.example.rest.repository.journal.JournalRecord.LastId;
+import com.example.rest.repository.journal.JournalRecord.OrderDelete;
+import com.example.rest.repository.journal.JournalRecord.OrderPut;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Двоичный формат журнала: {@code [длина][тип и поля][CRC32C]}.
+ * Чтение останавливается на первой неполной или повреждённой записи - это хвост,
+ * который не успел записаться до сбоя.
+ */
+final class JournalCodec {
+
+    static final int FRAME_OVERHEAD = Integer.BYTES * 2;
+
+    private static final int MAX_PAYLOAD = 1 << 20;
+
+    private static final byte CLIENT_PUT = 1;
+
+    private static final byte CLIENT_DELETE = 2;
+
+    private static final byte ORDER_PUT = 3;
+
+    private static final byte ORDER_DELETE = 4;
+
+    private static final byte LAST_ID = 5;
+
+    private JournalCodec() {
+    }
+
+    static byte[] frame(JournalRecord record) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+            encode(record, new DataOutputStream(payload));
+
+            byte[] bytes = payload.toByteArray();
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(bytes.length + FRAME_OVERHEAD);
+            DataOutputStream out = new DataOutputStream(frame);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeInt(checksum(bytes));
+
+            return frame.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Читает записи подряд и возвращает длину целой части потока в байтах.
+     */
+    static long readAll(InputStream input, Consumer<JournalRecord> sink) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        long valid = 0;
+
+        while (true) {
+            byte[] payload;
+            try {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_PAYLOAD) {
+                    return valid;
+                }
+                payload = new byte[length];
+                in.readFully(payload);
+                if (in.readInt() != checksum(payload)) {
+                    return valid;
+                }
+            } catch (EOFException ex) {
+                return valid;
+            }
+
+            sink.accept(decode(new DataInputStream(new ByteArrayInputStream(payload))));
+            valid += payload.length + FRAME_OVERHEAD;
+        }
+    }
+
+    private static void encode(JournalRecord record, DataOutput out) throws IOException {
+        switch (record) {
+            case ClientPut put -> {
+                out.writeByte(CLIENT_PUT);
+                out.writeLong(put.id());
+                writeLong(out, put.version());
+                writeString(out, put.name());
+            }
+            case ClientDelete delete -> {
+                out.writeByte(CLIENT_DELETE);
+                out.writeLong(delete.id());
+            }
+            case OrderPut put -> {
+                out.writeByte(ORDER_PUT);
+                out.writeLong(put.id());
+                writeLong(out, put.clientId());
+                writeLong(out, put.version());
+                writeString(out, put.product());
+                writeDecimal(out, put.cost());
+                writeInstant(out, put.createAt());
+                writeInstant(out, put.updateAt());
+            }
+            case OrderDelete delete -> {
+                out.writeByte(ORDER_DELETE);
+                out.writeLong(delete.id());
+            }
+            case LastId lastId -> {
+                out.writeByte(LAST_ID);
+                out.writeLong(lastId.id());
+                out.writeBoolean(lastId.isClient());
+            }
+        }
+    }
+
+    private static JournalRecord decode(DataInput in) throws IOException {
+        byte type = in.readByte();
+
+        return switch (type) {
+            case CLIENT_PUT -> {
+                long id = in.readLong();
+                Long version = readLong(in);
+                yield new ClientPut(id, readString(in), version);
+            }
+            case CLIENT_DELETE -> new ClientDelete(in.readLong());
+            case ORDER_PUT -> {
+                long id = in.readLong();
+                Long clientId = readLong(in);
+                Long version = readLong(in);
+                yield new OrderPut(id, clientId, readString(in), readDecimal(in), readInstant(in), readInstant(in), version);
+            }
+            case ORDER_DELETE -> new OrderDelete(in.readLong());
+            case LAST_ID -> new LastId(in.readLong(), in.readBoolean());
+            default -> throw new IOException("Неизвестный тип записи журнала: " + type);
+        };
+    }
+
+    private static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(-1);
+            return;
+        }
+
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        if (unscaled.length >= 0xFF) {
+            throw new IOException("Слишком большое значение стоимости для журнала: " + value);
+        }
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int length = in.readUnsignedByte();
+        if (length == 0xFF) {
+            return null;
+        }
+
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readInt());
+    }
+
+    private static void writeInstant(DataOutput out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static Instant readInstant(DataInput in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
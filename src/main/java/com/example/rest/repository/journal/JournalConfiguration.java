@@ -0,0 +1,30 @@
+package com.example.rest.repository.journal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class JournalConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.journal.enabled", havingValue = "true")
+    public FileRepositoryJournal fileRepositoryJournal(
+            @Value("${app.journal.directory:./data/journal}") Path directory,
+            @Value("${app.journal.sync-interval:5ms}") Duration syncInterval,
+            @Value("${app.journal.sync-size:256KB}") DataSize syncSize,
+            @Value("${app.journal.await-sync:true}") boolean awaitSync) {
+        return new FileRepositoryJournal(directory, syncInterval, (int) syncSize.toBytes(), awaitSync);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.journal.enabled", havingValue = "false", matchIfMissing = true)
+    public RepositoryJournal noopRepositoryJournal() {
+        return RepositoryJournal.NOOP;
+    }
+}
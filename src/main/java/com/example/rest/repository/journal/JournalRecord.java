@@ -0,0 +1,82 @@
+package com.example.rest.repository.journal;
+
+import com.example.rest.model.Client;
+import com.example.rest.model.Order;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+
+/**
+ * Запись журнала. Сохранение и обновление пишутся полным состоянием сущности, удаление - идентификатором,
+ * поэтому повтор записи ничего не меняет, а при восстановлении достаточно последней записи по каждой сущности.
+ */
+public sealed interface JournalRecord {
+
+    long id();
+
+    boolean isClient();
+
+    record ClientPut(long id, String name, Long version) implements JournalRecord {
+
+        public static ClientPut of(Client client) {
+            return new ClientPut(client.getId(), client.getName(), client.getVersion());
+        }
+
+        public Client toClient() {
+            return new Client(id, name, new ArrayList<>(), version);
+        }
+
+        @Override
+        public boolean isClient() {
+            return true;
+        }
+    }
+
+    record ClientDelete(long id) implements JournalRecord {
+
+        @Override
+        public boolean isClient() {
+            return true;
+        }
+    }
+
+    record OrderPut(long id, Long clientId, String product, BigDecimal cost,
+                    Instant createAt, Instant updateAt, Long version) implements JournalRecord {
+
+        public static OrderPut of(Order order) {
+            return new OrderPut(
+                    order.getId(),
+                    order.getClient() == null ? null : order.getClient().getId(),
+                    order.getProduct(),
+                    order.getCost(),
+                    order.getCreateAt(),
+                    order.getUpdateAt(),
+                    order.getVersion());
+        }
+
+        public Order toOrder(Client client) {
+            return new Order(id, product, cost, client, createAt, updateAt, version);
+        }
+
+        @Override
+        public boolean isClient() {
+            return false;
+        }
+    }
+
+    record OrderDelete(long id) implements JournalRecord {
+
+        @Override
+        public boolean isClient() {
+            return false;
+        }
+    }
+
+    /**
+     * Наибольший выданный ID клиентов или заказов. Пишется в снимок: удалённых сущностей в нём нет,
+     * а их ID не должны выдаваться повторно.
+     */
+    record LastId(long id, boolean isClient) implements JournalRecord {
+    }
+}
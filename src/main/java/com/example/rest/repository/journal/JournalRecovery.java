@@ -0,0 +1,138 @@
+package com.example.rest.repository.journal;
+
+import com.example.rest.model.Client;
+import com.example.rest.repository.impl.InMemoryClientRepository;
+import com.example.rest.repository.journal.JournalRecord.ClientPut;
+import com.example.rest.repository.journal.JournalRecord.LastId;
+import com.example.rest.repository.journal.JournalRecord.OrderPut;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Восстанавливает in-memory репозитории из журнала до старта веб-сервера и периодически уплотняет журнал.
+ * <p>
+ * Для каждой сущности применяется только её последняя запись: выбор последних записей и заполнение
+ * репозиториев идут параллельно, заказы одного клиента - последовательно, так как список заказов клиента не потокобезопасен.
+ * Счётчики ID продолжаются после наибольшего ID из всех записей, в том числе удалений и {@link LastId} снимка,
+ * чтобы ID удалённых сущностей не выдавались повторно.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.journal.enabled", havingValue = "true")
+public class JournalRecovery implements SmartInitializingSingleton {
+
+    private final FileRepositoryJournal journal;
+
+    private final InMemoryClientRepository clientRepository;
+
+    /**
+     * Нет, если заказы хранятся в отображаемом файле: он переживает перезапуск без журнала.
+     */
+    private final Optional<JournaledOrderRepository> orderRepository;
+
+    @Value("${app.journal.compaction-min-size:64MB}")
+    private DataSize compactionMinSize;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        List<JournalRecord> records = new ArrayList<>();
+        try {
+            journal.recover(records::add);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Не удалось прочитать журнал репозиториев", ex);
+        }
+
+        Collection<JournalRecord> latest = latest(records);
+
+        List<ClientPut> clients = latest.stream()
+                .filter(ClientPut.class::isInstance)
+                .map(ClientPut.class::cast)
+                .toList();
+        clients.parallelStream().forEach(record -> clientRepository.restore(record.toClient()));
+
+        Map<Long, List<OrderPut>> ordersByClient = orderRepository.isEmpty() ? Map.of() : latest.stream()
+                .filter(OrderPut.class::isInstance)
+                .map(OrderPut.class::cast)
+                .filter(record -> record.clientId() != null)
+                .collect(Collectors.groupingBy(OrderPut::clientId));
+        ordersByClient.entrySet().parallelStream().forEach(entry -> {
+            Client client = clientRepository.findById(entry.getKey()).orElse(null);
+            if (client == null) {
+                log.warn("Журнал: клиент {} не найден, пропущено заказов: {}", entry.getKey(), entry.getValue().size());
+                return;
+            }
+            entry.getValue().forEach(record -> orderRepository.get().restore(record.toOrder(client)));
+        });
+
+        clientRepository.reserveIds(lastId(records, true));
+        orderRepository.ifPresent(orders -> orders.reserveIds(lastId(records, false)));
+
+        log.info("Журнал: прочитано записей {}, восстановлено клиентов {} и заказов {} за {} мс",
+                records.size(), clients.size(),
+                ordersByClient.values().stream().mapToInt(List::size).sum(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${app.journal.compaction-interval:10m}")
+    public void compactIfNeeded() {
+        if (journal.getSegmentSize() < compactionMinSize.toBytes()) {
+            return;
+        }
+
+        try {
+            journal.compact(sink -> {
+                sink.accept(new LastId(clientRepository.lastId(), true));
+                orderRepository.ifPresent(orders -> sink.accept(new LastId(orders.lastId(), false)));
+                clientRepository.findAll().forEach(client -> sink.accept(ClientPut.of(client)));
+                orderRepository.ifPresent(orders -> orders.findAll().forEach(order -> sink.accept(OrderPut.of(order))));
+            });
+        } catch (IOException ex) {
+            log.error("Не удалось уплотнить журнал репозиториев", ex);
+        }
+    }
+
+    private static long lastId(List<JournalRecord> records, boolean client) {
+        return records.parallelStream()
+                .filter(record -> record.isClient() == client)
+                .mapToLong(JournalRecord::id)
+                .max()
+                .orElse(0);
+    }
+
+    private static Collection<JournalRecord> latest(List<JournalRecord> records) {
+        Map<Key, Integer> lastIndex = IntStream.range(0, records.size())
+                .parallel()
+                .filter(i -> !(records.get(i) instanceof LastId))
+                .boxed()
+                .collect(Collectors.toConcurrentMap(i -> Key.of(records.get(i)), i -> i, Math::max));
+
+        return lastIndex.values().stream()
+                .map(records::get)
+                .toList();
+    }
+
+    private record Key(boolean client, long id) {
+
+        static Key of(JournalRecord record) {
+            return new Key(record.isClient(), record.id());
+        }
+    }
+}
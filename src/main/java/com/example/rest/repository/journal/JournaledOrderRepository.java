@@ -0,0 +1,27 @@
+package com.example.rest.repository.journal;
+
+import com.example.rest.model.Order;
+import com.example.rest.repository.OrderRepository;
+
+/**
+ * Хранилище заказов, которое переживает перезапуск только через журнал: пишет в него изменения
+ * и принимает заказы из журнала при старте.
+ */
+public interface JournaledOrderRepository extends OrderRepository {
+
+    /**
+     * Возвращает заказ из журнала при старте: без новой версии и без записи в журнал.
+     * Клиент заказа уже должен быть восстановлен.
+     */
+    void restore(Order order);
+
+    /**
+     * Наибольший выданный ID заказа, включая удалённые заказы.
+     */
+    long lastId();
+
+    /**
+     * Не выдавать новым заказам ID до {@code lastId} включительно: они принадлежали заказам до перезапуска.
+     */
+    void reserveIds(long lastId);
+}
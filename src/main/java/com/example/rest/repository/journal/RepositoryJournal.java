@@ -0,0 +1,33 @@
+package com.example.rest.repository.journal;
+
+/**
+ * Журнал изменений in-memory репозиториев. Запись добавляется под той же блокировкой сегмента,
+ * под которой изменение применяется к памяти: тогда уплотнение либо увидит изменение в снимке,
+ * либо запись попадёт в новое поколение. Ждать сохранности на диске можно уже после снятия блокировок.
+ * По умолчанию журнал выключен и используется {@link #NOOP}.
+ */
+public interface RepositoryJournal {
+
+    RepositoryJournal NOOP = new RepositoryJournal() {
+
+        @Override
+        public long append(JournalRecord record) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long sequence) {
+        }
+    };
+
+    /**
+     * Добавляет запись и возвращает её порядковый номер. Если журнал недоступен, бросает
+     * {@link java.io.UncheckedIOException}: изменение, для которого не удалось добавить запись, не применяется.
+     */
+    long append(JournalRecord record);
+
+    /**
+     * Ждёт, пока запись с номером {@code sequence} и все предыдущие будут сброшены на диск.
+     */
+    void awaitDurable(long sequence);
+}
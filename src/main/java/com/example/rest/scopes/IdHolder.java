@@ -1,6 +0,0 @@
-package com.example.rest.scopes;
-
-public interface IdHolder {
-
-    void logId();
-}
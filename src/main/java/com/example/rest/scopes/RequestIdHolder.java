@@ -1,15 +0,0 @@
-package com.example.rest.scopes;
-
-import org.springframework.context.annotation.Scope;
-import org.springframework.context.annotation.ScopedProxyMode;
-import org.springframework.stereotype.Component;
-import org.springframework.web.context.WebApplicationContext;
-
-@Scope(value = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
-@Component
-public class RequestIdHolder extends AbstractIdHolder{
-    @Override
-    String holderType() {
-        return "Request";
-    }
-}
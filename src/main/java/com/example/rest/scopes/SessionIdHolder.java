@@ -1,17 +0,0 @@
-package com.example.rest.scopes;
-
-import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Scope;
-import org.springframework.context.annotation.ScopedProxyMode;
-import org.springframework.stereotype.Component;
-import org.springframework.web.context.WebApplicationContext;
-
-@Scope(value = WebApplicationContext.SCOPE_SESSION, proxyMode = ScopedProxyMode.TARGET_CLASS)
-@Component
-public class SessionIdHolder extends AbstractIdHolder {
-
-    @Override
-    String holderType() {
-        return "Session";
-    }
-}
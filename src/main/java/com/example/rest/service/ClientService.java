@@ -1,7 +1,10 @@
 package com.example.rest.service;
 
 import com.example.rest.model.Client;
+import com.example.rest.model.ClientOrderSummary;
 import com.example.rest.model.Order;
+import com.example.rest.model.ResourceStamp;
+import com.example.rest.web.model.TextMatch;
 
 import java.util.List;
 
@@ -10,12 +13,31 @@ public interface ClientService {
 
     List<Client> findAll();
 
+    List<Client> findAll(int pageNumber, int pageSize);
+
     Client findById(Long id);
 
+    List<Client> searchByName(String name, TextMatch match, int limit);
+
+    /**
+     * ETag клиента вместе с его заказами для условных запросов API v2.
+     * API v1 условные запросы не поддерживает и этот метод не вызывает.
+     */
+    ResourceStamp findStampById(Long id);
+
+    ClientOrderSummary findSummaryById(Long id);
+
+    /**
+     * ETag списка всех клиентов для условных запросов API v2, в API v1 не используется.
+     */
+    ResourceStamp findAllStamp();
+
     Client save(Client client);
 
     Client update(Client client);
 
+    Client update(Client client, long expectedVersion);
+
     void deleteById(Long id);
 
     Client saveWithOrders(Client client, List<Order> orders);
@@ -2,37 +2,60 @@ package com.example.rest.service;
 
 import com.example.rest.exception.UpdateStateException;
 import com.example.rest.model.Order;
+import com.example.rest.model.OrderStats;
+import com.example.rest.model.ResourceStamp;
 import com.example.rest.web.model.OrderFilter;
-import org.springframework.boot.web.servlet.filter.OrderedFilter;
+import com.example.rest.web.model.OrderStatsGroupBy;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
+    Duration UPDATE_WINDOW = Duration.ofSeconds(5);
+
     List<Order> filterBy(OrderFilter filter);
 
+    void exportBy(OrderFilter filter, Consumer<Order> consumer);
+
+    List<OrderStats> statsBy(OrderFilter filter, OrderStatsGroupBy groupBy);
+
     List<Order> findAll();
 
     Order findById(Long id);
 
+    /**
+     * Валидаторы для условных запросов API v2, в API v1 не используются.
+     */
+    ResourceStamp findStampById(Long id);
+
+    ResourceStamp findAllStamp();
+
     Order save(Order order);
 
     Order update (Order order);
 
+    Order update(Order order, long expectedVersion);
+
     void deleteById(Long id);
 
     void deleteByIdIn(List<Long> ids);
 
+    long deleteBy(OrderFilter filter);
+
     default void checkForUpdate(Long orderId) {
-        Order currentOrder = findById(orderId);
+        checkForUpdate(findById(orderId));
+    }
+
+    default void checkForUpdate(Order currentOrder) {
         Instant now = Instant.now();
 
         Duration duration = Duration.between(currentOrder.getUpdateAt(), now);
 
-        if (duration.getSeconds() > 5){
+        if (duration.compareTo(UPDATE_WINDOW) > 0){
             throw new UpdateStateException("Невозможно обновить заказ!");
         }
     }
@@ -1,17 +1,25 @@
 package com.example.rest.service.impl;
 
 import com.example.rest.exception.EntityNotFoundException;
+import com.example.rest.model.AggregateStamp;
 import com.example.rest.model.Client;
+import com.example.rest.model.ClientOrderSummary;
 import com.example.rest.model.Order;
+import com.example.rest.model.ResourceStamp;
 import com.example.rest.repository.ClientRepository;
+import com.example.rest.repository.OrderRepository;
 import com.example.rest.service.ClientService;
+import com.example.rest.web.model.TextMatch;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.NotImplementedException;
 import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,14 +27,52 @@ public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
 
+    private final OrderRepository orderRepository;
+
     @Override
     public List<Client> findAll() {
-        return clientRepository.findAll();
+        return attachOrders(clientRepository.findAll());
+    }
+
+    @Override
+    public List<Client> findAll(int pageNumber, int pageSize) {
+        return attachOrders(clientRepository.findAll().stream()
+                .sorted(Comparator.comparing(Client::getId))
+                .skip((long) pageNumber * pageSize)
+                .limit(pageSize)
+                .toList());
     }
 
     @Override
     public Client findById(Long id) {
-        return clientRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(MessageFormat.format("Клиент с ID {0} не найден!", id)));
+        return attachOrders(List.of(findClient(id))).get(0);
+    }
+
+    @Override
+    public ResourceStamp findStampById(Long id) {
+        Client client = findById(id);
+
+        return ResourceStamp.of(client.getVersion() + "." + AggregateStamp.of(client.getOrders(),
+                Order::getId, Order::getVersion, Order::getUpdateAt).tag());
+    }
+
+    @Override
+    public List<Client> searchByName(String name, TextMatch match, int limit) {
+        return attachOrders(clientRepository.searchByName(name, match, limit));
+    }
+
+    @Override
+    public ClientOrderSummary findSummaryById(Long id) {
+        findClient(id);
+
+        return orderRepository.findSummaryByClientId(id);
+    }
+
+    @Override
+    public ResourceStamp findAllStamp() {
+        return ResourceStamp.of(
+                AggregateStamp.of(clientRepository.findAll(), Client::getId, Client::getVersion, null).tag() + "."
+                        + AggregateStamp.of(orderRepository.findAll(), Order::getId, Order::getVersion, Order::getUpdateAt).tag());
     }
 
     @Override
@@ -36,7 +82,12 @@ public class ClientServiceImpl implements ClientService {
 
     @Override
     public Client update(Client client) {
-        return clientRepository.update(client);
+        return attachOrders(List.of(clientRepository.update(client))).get(0);
+    }
+
+    @Override
+    public Client update(Client client, long expectedVersion) {
+        return attachOrders(List.of(clientRepository.update(client, expectedVersion))).get(0);
     }
 
     @Override
@@ -46,6 +97,37 @@ public class ClientServiceImpl implements ClientService {
 
     @Override
     public Client saveWithOrders(Client client, List<Order> orders) {
-        throw new NotImplementedException();
+        Client savedClient = clientRepository.save(client);
+
+        for (Order order : orders) {
+            order.setClient(savedClient);
+            orderRepository.save(order);
+        }
+
+        return attachOrders(List.of(savedClient)).get(0);
+    }
+
+    private Client findClient(Long id) {
+        return clientRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(MessageFormat.format("Клиент с ID {0} не найден!", id)));
+    }
+
+    /**
+     * Копии клиентов со списками заказов из репозитория заказов: хранилище заказов
+     * не обязано держать заказы в самом клиенте.
+     */
+    private List<Client> attachOrders(List<Client> clients) {
+        if (clients.isEmpty()) {
+            return clients;
+        }
+
+        Map<Long, List<Order>> ordersByClientId = orderRepository.findAllByClientIdIn(
+                        clients.stream().map(Client::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(order -> order.getClient().getId()));
+
+        return clients.stream()
+                .map(client -> new Client(client.getId(), client.getName(),
+                        ordersByClientId.getOrDefault(client.getId(), new ArrayList<>()), client.getVersion()))
+                .toList();
     }
 }
@@ -2,18 +2,27 @@ package com.example.rest.service.impl;
 
 import com.example.rest.aop.Loggable;
 import com.example.rest.exception.EntityNotFoundException;
+import com.example.rest.exception.PreconditionFailedException;
 import com.example.rest.model.Client;
+import com.example.rest.model.ClientOrderSummary;
 import com.example.rest.model.Order;
+import com.example.rest.model.ResourceStamp;
 import com.example.rest.repository.DataBaseClientRepository;
 import com.example.rest.repository.DatabaseOrderRepository;
+import com.example.rest.repository.LikePatterns;
 import com.example.rest.service.ClientService;
 import com.example.rest.utils.BeanUtils;
+import com.example.rest.web.model.TextMatch;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.text.MessageFormat;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +38,15 @@ public class DataBaseClientService implements ClientService {
         return clientRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Client> findAll(int pageNumber, int pageSize) {
+        List<Client> clients = clientRepository.findAllBy(PageRequest.of(pageNumber, pageSize, Sort.by("id")));
+        initializeOrders(clients);
+
+        return clients;
+    }
+
     @Override
     public Client findById(Long id) {
         return clientRepository.findById(id)
@@ -36,38 +54,98 @@ public class DataBaseClientService implements ClientService {
                         MessageFormat.format("Клиент с ID {0} не найден", id)));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceStamp findStampById(Long id) {
+        Long version = clientRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        MessageFormat.format("Клиент с ID {0} не найден", id)));
+
+        return ResourceStamp.of(version + "." + orderRepository.aggregateStampByClientId(id).tag());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Client> searchByName(String name, TextMatch match, int limit) {
+        String pattern = match == TextMatch.PREFIX ? LikePatterns.prefix(name) : LikePatterns.contains(name);
+        List<Client> clients = clientRepository.findAllByNameLike(pattern, PageRequest.of(0, limit, Sort.by("name", "id")));
+        initializeOrders(clients);
+
+        return clients;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ClientOrderSummary findSummaryById(Long id) {
+        if (!clientRepository.existsById(id)) {
+            throw new EntityNotFoundException(MessageFormat.format("Клиент с ID {0} не найден", id));
+        }
+
+        return orderRepository.findSummaryByClientId(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceStamp findAllStamp() {
+        return ResourceStamp.of(clientRepository.aggregateStamp().tag() + "." + orderRepository.aggregateStamp().tag());
+    }
+
     @Override
     public Client save(Client client) {
         return clientRepository.save(client);
     }
 
     @Override
+    @Transactional
     public Client update(Client client) {
-        Client existedClient = findById(client.getId());
+        Client existedClient = findWithOrdersById(client.getId());
+        BeanUtils.copyNonNullProperties(client, existedClient);
+
+        return existedClient;
+    }
+
+    @Override
+    @Transactional
+    public Client update(Client client, long expectedVersion) {
+        Client existedClient = findWithOrdersById(client.getId());
+        if (!Objects.equals(existedClient.getVersion(), expectedVersion)) {
+            throw new PreconditionFailedException(MessageFormat.format("Клиент по ID: {0} был изменён другим запросом!", client.getId()));
+        }
         BeanUtils.copyNonNullProperties(client, existedClient);
 
-        return clientRepository.save(existedClient);
+        return existedClient;
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        clientRepository.deleteById(id);
+        orderRepository.deleteAllByClientId(id);
+        clientRepository.deleteAllByIdInBatch(List.of(id));
     }
 
     @Override
     @Transactional
     @Loggable
     public Client saveWithOrders(Client client, List<Order> orders) {
-        Client savedClient = clientRepository.save(client);
-
-        if (true) throw new RuntimeException();
-
         for (Order order : orders) {
-            order.setClient(savedClient);
-            var savedOrder = orderRepository.save(order);
-            savedClient.addOrder(savedOrder);
+            order.setClient(client);
+            client.addOrder(order);
         }
 
-        return savedClient;
+        return clientRepository.save(client);
+    }
+
+    private Client findWithOrdersById(Long id) {
+        return clientRepository.findWithOrdersById(id)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        MessageFormat.format("Клиент с ID {0} не найден", id)));
+    }
+
+    /**
+     * Загружает заказы клиентов внутри транзакции, не меняя сущности: {@code default_batch_fetch_size}
+     * подгружает коллекции всей страницы пачками через {@code IN}.
+     */
+    private void initializeOrders(List<Client> clients) {
+        clients.forEach(client -> Hibernate.initialize(client.getOrders()));
     }
 }
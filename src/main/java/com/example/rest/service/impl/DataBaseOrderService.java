@@ -1,19 +1,32 @@
 package com.example.rest.service.impl;
 
 import com.example.rest.exception.EntityNotFoundException;
+import com.example.rest.exception.PreconditionFailedException;
 import com.example.rest.model.Client;
 import com.example.rest.model.Order;
+import com.example.rest.model.OrderStats;
+import com.example.rest.model.ResourceStamp;
+import com.example.rest.repository.DataBaseClientRepository;
 import com.example.rest.repository.DatabaseOrderRepository;
 import com.example.rest.repository.OrderSpecification;
 import com.example.rest.service.ClientService;
 import com.example.rest.service.OrderService;
 import com.example.rest.utils.BeanUtils;
+import com.example.rest.web.model.OrderCursor;
 import com.example.rest.web.model.OrderFilter;
+import com.example.rest.web.model.OrderStatsGroupBy;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.text.MessageFormat;
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -21,16 +34,41 @@ public class DataBaseOrderService implements OrderService {
 
     private final DatabaseOrderRepository orderRepository;
 
+    private final DataBaseClientRepository clientRepository;
+
     private final ClientService dataBaseClientService;
 
+    @Value("${app.order-export.fetch-size:500}")
+    private int exportFetchSize;
+
     @Override
     public List<Order> filterBy(OrderFilter filter) {
+        if (filter.usesCursor()) {
+            return orderRepository.findBy(
+                    OrderSpecification.withFilter(filter)
+                            .and(OrderSpecification.byCursor(OrderCursor.decode(filter.getCursor()))),
+                    query -> query.sortBy(OrderSpecification.CURSOR_SORT)
+                            .limit(filter.getPageSize())
+                            .all());
+        }
+
         return orderRepository.findAll(OrderSpecification.withFilter(filter),
                 PageRequest.of(
                         filter.getPageNumber(), filter.getPageSize()
                 )).getContent();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBy(OrderFilter filter, Consumer<Order> consumer) {
+        orderRepository.forEach(OrderSpecification.withFilter(filter), exportFetchSize, consumer);
+    }
+
+    @Override
+    public List<OrderStats> statsBy(OrderFilter filter, OrderStatsGroupBy groupBy) {
+        return orderRepository.stats(OrderSpecification.withFilter(filter), groupBy);
+    }
+
     @Override
     public List<Order> findAll() {
         return orderRepository.findAll();
@@ -41,6 +79,17 @@ public class DataBaseOrderService implements OrderService {
         return orderRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Заказ с ID {0} не найден"));
     }
 
+    @Override
+    public ResourceStamp findStampById(Long id) {
+        return orderRepository.findStampById(id).orElseThrow(() -> new EntityNotFoundException(
+                MessageFormat.format("Заказ с ID {0} не найден", id)));
+    }
+
+    @Override
+    public ResourceStamp findAllStamp() {
+        return ResourceStamp.of(orderRepository.aggregateStamp().tag());
+    }
+
     @Override
     public Order save(Order order) {
         Client client = dataBaseClientService.findById(order.getClient().getId());
@@ -49,15 +98,47 @@ public class DataBaseOrderService implements OrderService {
     }
 
     @Override
+    @Transactional
     public Order update(Order order) {
-        checkForUpdate(order.getId());
-        Client client = dataBaseClientService.findById(order.getClient().getId());
         Order existedOrder = findById(order.getId());
+        checkForUpdate(existedOrder);
+        Client client = resolveClient(existedOrder, order.getClient().getId());
 
         BeanUtils.copyNonNullProperties(order, existedOrder);
         existedOrder.setClient(client);
 
-        return orderRepository.save(existedOrder);
+        return existedOrder;
+    }
+
+    @Override
+    @Transactional
+    public Order update(Order order, long expectedVersion) {
+        Long orderId = order.getId();
+        Long clientId = order.getClient().getId();
+        Instant now = Instant.now();
+
+        int updated;
+        try {
+            updated = orderRepository.updateIfUnchanged(orderId, expectedVersion, order.getProduct(), order.getCost(),
+                    clientRepository.getReferenceById(clientId), now, now.minus(UPDATE_WINDOW));
+        } catch (DataIntegrityViolationException ex) {
+            throw new EntityNotFoundException(MessageFormat.format("Клиент с ID {0} не найден!", clientId));
+        }
+
+        if (updated == 0) {
+            Order currentOrder = findById(orderId);
+            if (Objects.equals(currentOrder.getVersion(), expectedVersion)) {
+                checkForUpdate(currentOrder);
+            }
+            throw new PreconditionFailedException(MessageFormat.format("Заказ по ID: {0} был изменён другим запросом!", orderId));
+        }
+        if (order.getProduct() == null || order.getCost() == null) {
+            return findById(orderId);
+        }
+
+        order.setUpdateAt(now);
+        order.setVersion(expectedVersion + 1);
+        return order;
     }
 
     @Override
@@ -67,6 +148,20 @@ public class DataBaseOrderService implements OrderService {
 
     @Override
     public void deleteByIdIn(List<Long> ids) {
-        orderRepository.deleteAllById(ids);
+        orderRepository.deleteAllByIdInBatch(ids);
+    }
+
+    @Override
+    public long deleteBy(OrderFilter filter) {
+        return orderRepository.delete(OrderSpecification.withFilter(filter));
+    }
+
+    private Client resolveClient(Order existedOrder, Long clientId) {
+        Client currentClient = existedOrder.getClient();
+        if (currentClient != null && currentClient.getId().equals(clientId)) {
+            return currentClient;
+        }
+
+        return dataBaseClientService.findById(clientId);
     }
 }
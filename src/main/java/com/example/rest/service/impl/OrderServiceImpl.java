@@ -1,16 +1,26 @@
 package com.example.rest.service.impl;
 
 import com.example.rest.exception.EntityNotFoundException;
+import com.example.rest.model.AggregateStamp;
 import com.example.rest.model.Order;
+import com.example.rest.model.OrderStats;
+import com.example.rest.model.ResourceStamp;
 import com.example.rest.repository.OrderRepository;
 import com.example.rest.service.OrderService;
 import com.example.rest.web.model.OrderFilter;
+import com.example.rest.web.model.OrderStatsGroupBy;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.NotImplementedException;
 import org.springframework.stereotype.Service;
 
 import java.text.MessageFormat;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,7 +30,35 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public List<Order> filterBy(OrderFilter filter) {
-        throw new NotImplementedException();
+        return orderRepository.filterBy(filter);
+    }
+
+    @Override
+    public void exportBy(OrderFilter filter, Consumer<Order> consumer) {
+        orderRepository.forEach(filter, consumer);
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<OrderStats> statsBy(OrderFilter filter, OrderStatsGroupBy groupBy) {
+        Comparator<Object> byKey = Comparator.nullsLast((Comparator) Comparator.naturalOrder());
+        Function<Order, Object> keyOf = order -> switch (groupBy) {
+            case CLIENT -> order.getClient() == null ? null : order.getClient().getId();
+            case PRODUCT -> order.getProduct();
+            default -> groupBy.truncate(order.getCreateAt());
+        };
+
+        Map<Object, OrderStats.Accumulator> groups = orderRepository.collect(filter, Collector.of(
+                () -> new TreeMap<>(byKey),
+                (partial, order) -> partial.computeIfAbsent(keyOf.apply(order), key -> new OrderStats.Accumulator()).add(order.getCost()),
+                (partial, other) -> {
+                    other.forEach((key, accumulator) -> partial.merge(key, accumulator, OrderStats.Accumulator::merge));
+                    return partial;
+                }));
+
+        return groups.entrySet().stream()
+                .map(group -> group.getValue().toStats(group.getKey()))
+                .toList();
     }
 
     @Override
@@ -33,6 +71,19 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(MessageFormat.format("Заказ с id: {0} не найден!", id)));
     }
 
+    @Override
+    public ResourceStamp findStampById(Long id) {
+        Order order = findById(id);
+
+        return new ResourceStamp(String.valueOf(order.getVersion()), order.getUpdateAt());
+    }
+
+    @Override
+    public ResourceStamp findAllStamp() {
+        return ResourceStamp.of(AggregateStamp.of(orderRepository.findAll(),
+                Order::getId, Order::getVersion, Order::getUpdateAt).tag());
+    }
+
     @Override
     public Order save(Order order) {
         return orderRepository.save(order);
@@ -44,6 +95,12 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.update(order);
     }
 
+    @Override
+    public Order update(Order order, long expectedVersion) {
+        checkForUpdate(order.getId());
+        return orderRepository.update(order, expectedVersion);
+    }
+
     @Override
     public void deleteById(Long id) {
         Order currentOrder = findById(id);
@@ -58,5 +115,13 @@ public class OrderServiceImpl implements OrderService {
 
     }
 
+    @Override
+    public long deleteBy(OrderFilter filter) {
+        List<Long> ids = orderRepository.collect(filter, Collectors.mapping(Order::getId, Collectors.toList()));
+        ids.forEach(this::deleteById);
+
+        return ids.size();
+    }
+
 
 }
@@ -1,25 +1,106 @@
 package com.example.rest.utils;
 
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+/**
+ * Копирование непустых полей одного объекта в другой.
+ * Класс разбирается один раз: для каждого поля собирается {@link MethodHandle}
+ * вида {@code (source, destination) -> void}, который сам проверяет значение на {@code null},
+ * поэтому вызов не выделяет памяти. Поля {@link Id} и {@link Version}, статические и final
+ * не копируются, пустые коллекции и словари считаются незаполненными.
+ */
 @UtilityClass
 public class BeanUtils {
 
+    private final MethodType COPIER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final ClassValue<MethodHandle[]> COPIERS = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+            return introspect(type);
+        }
+    };
+
     @SneakyThrows
     public void copyNonNullProperties(Object source, Object destination) {
-        Class<?> clazz = source.getClass();
-        Field[] fields = clazz.getDeclaredFields();
-
-        for (Field field : fields) {
-            field.setAccessible(true);
-            Object value = field.get(source);
+        for (MethodHandle copier : COPIERS.get(source.getClass())) {
+            copier.invokeExact(source, destination);
+        }
+    }
 
-            if (value != null) {
-                field.set(destination, value);
+    @SneakyThrows
+    private MethodHandle[] introspect(Class<?> type) {
+        List<MethodHandle> copiers = new ArrayList<>();
+        for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(current, MethodHandles.lookup());
+            for (Field field : current.getDeclaredFields()) {
+                if (isCopyable(field)) {
+                    copiers.add(copier(lookup, field));
+                }
             }
         }
+
+        return copiers.toArray(MethodHandle[]::new);
+    }
+
+    private boolean isCopyable(Field field) {
+        int modifiers = field.getModifiers();
+
+        return !Modifier.isStatic(modifiers)
+                && !Modifier.isFinal(modifiers)
+                && !field.isSynthetic()
+                && !field.isAnnotationPresent(Id.class)
+                && !field.isAnnotationPresent(Version.class);
+    }
+
+    private MethodHandle copier(MethodHandles.Lookup lookup, Field field) throws ReflectiveOperationException {
+        MethodHandle getter = lookup.unreflectGetter(field);
+        MethodHandle setter = lookup.unreflectSetter(field);
+
+        MethodHandle copier = setter;
+        if (!field.getType().isPrimitive()) {
+            MethodHandle isFilled = MethodHandles.dropArguments(
+                    filledCheck(field.getType()).asType(MethodType.methodType(boolean.class, field.getType())),
+                    0, field.getDeclaringClass());
+            copier = MethodHandles.guardWithTest(isFilled, setter, MethodHandles.empty(setter.type()));
+        }
+        // (destination, value) -> (destination, source) -> (source, destination)
+        copier = MethodHandles.filterArguments(copier, 1, getter);
+
+        return MethodHandles.permuteArguments(copier.asType(COPIER_TYPE), COPIER_TYPE, 1, 0);
+    }
+
+    private MethodHandle filledCheck(Class<?> type) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (Collection.class.isAssignableFrom(type)) {
+            return lookup.findStatic(BeanUtils.class, "isFilled", MethodType.methodType(boolean.class, Collection.class));
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return lookup.findStatic(BeanUtils.class, "isFilled", MethodType.methodType(boolean.class, Map.class));
+        }
+
+        return lookup.findStatic(Objects.class, "nonNull", MethodType.methodType(boolean.class, Object.class));
+    }
+
+    private boolean isFilled(Collection<?> value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private boolean isFilled(Map<?, ?> value) {
+        return value != null && !value.isEmpty();
     }
 }
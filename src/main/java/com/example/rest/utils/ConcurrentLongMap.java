@@ -0,0 +1,354 @@
+package com.example.rest.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Конкурентная хеш-таблица с примитивными ключами {@code long}.
+ * Ключи и значения лежат в параллельных массивах с открытой адресацией, поэтому
+ * на запись не создаются узлы и обёртки {@link Long}. Таблица разбита на сегменты
+ * со своим {@link StampedLock}: чтение идёт без блокировки (оптимистично),
+ * запись блокирует только свой сегмент. Значения {@code null} не поддерживаются.
+ * Блокировка сегмента не реентерабельна: повторное обращение потока к сегменту, который
+ * он сам держит в {@link #compute}, завершается {@link IllegalStateException}, а не зависанием.
+ */
+public class ConcurrentLongMap<V> {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment<V>[] segments;
+
+    private final int segmentShift;
+
+    public ConcurrentLongMap() {
+        this(Runtime.getRuntime().availableProcessors() * 4, MIN_SEGMENT_CAPACITY);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongMap(int concurrencyLevel, int initialSegmentCapacity) {
+        int segmentCount = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1) << 1);
+        int capacity = Integer.highestOneBit(Math.max(MIN_SEGMENT_CAPACITY, initialSegmentCapacity - 1) << 1);
+
+        this.segments = new Segment[segmentCount];
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(capacity);
+        }
+    }
+
+    public V get(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+
+        long hash = hash(key);
+        return segmentFor(hash).compute(key, hash, (k, current) -> value);
+    }
+
+    public V remove(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).compute(key, hash, (k, current) -> null);
+    }
+
+    /**
+     * Атомарно пересчитывает значение по ключу под блокировкой сегмента.
+     * Функция получает {@code null}, если ключа нет; вернув {@code null}, она удаляет запись.
+     * Исключение из функции пробрасывается, таблица при этом не меняется.
+     * Функция не должна обращаться к этой таблице: любой ключ может попасть в тот же сегмент,
+     * и такое обращение завершается {@link IllegalStateException}.
+     * Возвращает новое значение.
+     */
+    public V compute(long key, Remapping<V> remapping) {
+        long hash = hash(key);
+        Segment<V> segment = segmentFor(hash);
+        long stamp = segment.lockWrite();
+        try {
+            V result = remapping.apply(key, segment.find(key, hash));
+            segment.store(key, hash, result);
+            return result;
+        } finally {
+            segment.releaseWrite(stamp);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            long stamp = segment.lockWrite();
+            try {
+                segment.table = new Table(segment.table.keys.length);
+                segment.size = 0;
+            } finally {
+                segment.releaseWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Обходит значения посегментно. Каждый сегмент копируется под read-блокировкой,
+     * поэтому действие выполняется без удержания блокировок и может обращаться к таблице.
+     */
+    public void forEach(Consumer<? super V> action) {
+        for (Segment<V> segment : segments) {
+            segment.snapshot().forEach(action);
+        }
+    }
+
+    public Stream<V> stream() {
+        return Arrays.stream(segments).flatMap(segment -> segment.snapshot().stream());
+    }
+
+    /**
+     * Параллельный обход: сегменты делятся между потоками {@link java.util.concurrent.ForkJoinPool},
+     * внутри сегмента значения обходятся последовательно по его копии. Порядок значений не определён.
+     */
+    public Stream<V> parallelStream() {
+        return Arrays.stream(segments).parallel().flatMap(segment -> segment.snapshot().stream()).unordered();
+    }
+
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        forEach(values::add);
+
+        return values;
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+    }
+
+    private static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+
+        return key;
+    }
+
+    @FunctionalInterface
+    public interface Remapping<V> {
+
+        V apply(long key, V current);
+    }
+
+    private static final class Table {
+
+        final long[] keys;
+
+        final Object[] values;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+    }
+
+    private static final class Segment<V> extends StampedLock {
+
+        volatile Table table;
+
+        volatile int size;
+
+        /**
+         * Поток, который держит блокировку записи. Сравнивается только с текущим потоком,
+         * а свою запись поток видит всегда, поэтому {@code volatile} не нужен.
+         */
+        Thread owner;
+
+        Segment(int capacity) {
+            this.table = new Table(capacity);
+        }
+
+        V get(long key, long hash) {
+            long stamp = tryOptimisticRead();
+            if (stamp != 0) {
+                V value = find(key, hash);
+                if (validate(stamp)) {
+                    return value;
+                }
+            }
+
+            checkNotOwner();
+            stamp = readLock();
+            try {
+                return find(key, hash);
+            } finally {
+                unlockRead(stamp);
+            }
+        }
+
+        V compute(long key, long hash, Remapping<V> remapping) {
+            long stamp = lockWrite();
+            try {
+                V previous = find(key, hash);
+                store(key, hash, remapping.apply(key, previous));
+                return previous;
+            } finally {
+                releaseWrite(stamp);
+            }
+        }
+
+        long lockWrite() {
+            checkNotOwner();
+            long stamp = writeLock();
+            owner = Thread.currentThread();
+
+            return stamp;
+        }
+
+        void releaseWrite(long stamp) {
+            owner = null;
+            unlockWrite(stamp);
+        }
+
+        private void checkNotOwner() {
+            if (owner == Thread.currentThread()) {
+                throw new IllegalStateException("Повторное обращение к ConcurrentLongMap из функции compute!");
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V find(long key, long hash) {
+            Table current = table;
+            long[] keys = current.keys;
+            Object[] values = current.values;
+            int mask = keys.length - 1;
+
+            for (int i = (int) hash & mask, probes = 0; probes < keys.length; i = (i + 1) & mask, probes++) {
+                Object value = values[i];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[i] == key) {
+                    return (V) value;
+                }
+            }
+
+            return null;
+        }
+
+        void store(long key, long hash, V value) {
+            Table current = table;
+            long[] keys = current.keys;
+            Object[] values = current.values;
+            int mask = keys.length - 1;
+
+            int i = (int) hash & mask;
+            while (values[i] != null && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+
+            if (values[i] == null) {
+                if (value != null) {
+                    keys[i] = key;
+                    values[i] = value;
+                    if (++size > keys.length * LOAD_FACTOR) {
+                        resize(keys.length << 1);
+                    }
+                }
+            } else if (value != null) {
+                values[i] = value;
+            } else {
+                delete(current, i);
+                size--;
+            }
+        }
+
+        List<V> snapshot() {
+            checkNotOwner();
+            long stamp = readLock();
+            try {
+                Object[] values = table.values;
+                List<V> result = new ArrayList<>(size);
+                for (Object value : values) {
+                    if (value != null) {
+                        @SuppressWarnings("unchecked")
+                        V typed = (V) value;
+                        result.add(typed);
+                    }
+                }
+
+                return result;
+            } finally {
+                unlockRead(stamp);
+            }
+        }
+
+        private void resize(int capacity) {
+            Table previous = table;
+            Table resized = new Table(capacity);
+            int mask = capacity - 1;
+
+            for (int j = 0; j < previous.keys.length; j++) {
+                Object value = previous.values[j];
+                if (value == null) {
+                    continue;
+                }
+
+                int i = (int) hash(previous.keys[j]) & mask;
+                while (resized.values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                resized.keys[i] = previous.keys[j];
+                resized.values[i] = value;
+            }
+
+            table = resized;
+        }
+
+        /**
+         * Удаление со сдвигом назад: следующие записи цепочки пробирования переезжают
+         * в освободившуюся ячейку, поэтому надгробия не нужны.
+         */
+        private static void delete(Table table, int slot) {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+
+            int gap = slot;
+            for (int i = (slot + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+                int home = (int) hash(keys[i]) & mask;
+                boolean movable = gap <= i
+                        ? home <= gap || home > i
+                        : home <= gap && home > i;
+                if (movable) {
+                    keys[gap] = keys[i];
+                    values[gap] = values[i];
+                    gap = i;
+                }
+            }
+
+            keys[gap] = 0;
+            values[gap] = null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.rest.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченная lock-free очередь: много производителей, один потребитель.
+ * Каждая ячейка хранит номер последовательности (схема Вьюкова): производитель
+ * занимает позицию CAS-ом на хвосте и публикует элемент записью номера с release,
+ * потребитель читает номер с acquire. Переполненная очередь не ждёт, а отказывает в {@link #offer}.
+ */
+public class MpscRingBuffer<E> {
+
+    private final Object[] elements;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private long head;
+
+    public MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Кладёт элемент, если есть место. Безопасен для вызова из любых потоков.
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Забирает следующий элемент или возвращает {@code null}. Вызывается только потребителем.
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        int index = (int) head & mask;
+        if (sequences.getAcquire(index) != head + 1) {
+            return null;
+        }
+
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.setRelease(index, head + elements.length);
+        head++;
+
+        return element;
+    }
+
+    /**
+     * Передаёт действию до {@code limit} элементов и возвращает их число. Вызывается только потребителем.
+     */
+    public int drain(Consumer<? super E> action, int limit) {
+        int drained = 0;
+        for (E element; drained < limit && (element = poll()) != null; drained++) {
+            action.accept(element);
+        }
+
+        return drained;
+    }
+}
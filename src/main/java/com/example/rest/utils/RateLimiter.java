@@ -0,0 +1,46 @@
+package com.example.rest.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ограничитель скорости по алгоритму GCRA (эквивалент маркерной корзины).
+ * Всё состояние - одно теоретическое время прибытия следующего запроса, которое обновляется CAS-ом.
+ * Разрешает {@code burst} запросов подряд и дальше в среднем {@code permitsPerSecond} в секунду.
+ */
+public class RateLimiter {
+
+    private final long emissionIntervalNanos;
+
+    private final long toleranceNanos;
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = emissionIntervalNanos * burst;
+    }
+
+    /**
+     * Пытается занять разрешение в момент {@code nowNanos} (шкала {@link System#nanoTime()}).
+     * Возвращает 0, если запрос разрешён, иначе - сколько наносекунд подождать до следующей попытки.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long allowedAt = next - toleranceNanos;
+
+            if (allowedAt > nowNanos) {
+                return allowedAt - nowNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.rest.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Генератор ULID: 48 бит времени в миллисекундах и 80 случайных бит, 26 символов Crockford base32.
+ * Генератор свой у каждого потока, поэтому вызов не требует синхронизации. В пределах одной
+ * миллисекунды случайная часть увеличивается на единицу, и идентификаторы потока строго возрастают.
+ */
+public final class UlidGenerator {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final int LENGTH = 26;
+
+    private static final int TIME_LENGTH = 10;
+
+    private static final ThreadLocal<UlidGenerator> GENERATORS = ThreadLocal.withInitial(UlidGenerator::new);
+
+    private long lastMillis = -1;
+
+    private long randomHigh;
+
+    private long randomLow;
+
+    private UlidGenerator() {
+    }
+
+    public static String next() {
+        return GENERATORS.get().generate();
+    }
+
+    private String generate() {
+        long now = System.currentTimeMillis();
+        if (now > lastMillis) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            lastMillis = now;
+            randomHigh = random.nextInt() & 0xFFFFL;
+            randomLow = random.nextLong();
+        } else if (++randomLow == 0 && (randomHigh = (randomHigh + 1) & 0xFFFFL) == 0) {
+            lastMillis++;
+        }
+
+        return encode(lastMillis, randomHigh, randomLow);
+    }
+
+    private static String encode(long time, long high, long low) {
+        char[] chars = new char[LENGTH];
+
+        for (int i = TIME_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (time & 31)];
+            time >>>= 5;
+        }
+        for (int i = LENGTH - 1; i >= TIME_LENGTH; i--) {
+            chars[i] = ALPHABET[(int) (low & 31)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+
+        return new String(chars);
+    }
+}
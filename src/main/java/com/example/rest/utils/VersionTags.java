@@ -0,0 +1,40 @@
+package com.example.rest.utils;
+
+import com.example.rest.exception.PreconditionFailedException;
+
+/**
+ * Перевод версии сущности в сильный ETag и обратно.
+ * Тег может продолжаться после точки сводкой по вложенным данным, как у клиента с заказами,
+ * для {@code If-Match} берётся только версия до точки.
+ * Значение {@code If-Match}, которое не является сильным тегом с числовой версией,
+ * не может совпасть ни с одной версией, поэтому приводит к 412.
+ */
+public final class VersionTags {
+
+    private static final String ANY = "*";
+
+    private VersionTags() {
+    }
+
+    public static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    public static boolean isAny(String ifMatch) {
+        return ifMatch == null || ANY.equals(ifMatch.strip());
+    }
+
+    public static long parse(String ifMatch) {
+        String tag = ifMatch.strip();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            int end = tag.indexOf('.');
+            try {
+                return Long.parseLong(tag.substring(1, end < 0 ? tag.length() - 1 : end));
+            } catch (NumberFormatException ignored) {
+                // обработка ниже
+            }
+        }
+
+        throw new PreconditionFailedException("Некорректное значение заголовка If-Match!");
+    }
+}
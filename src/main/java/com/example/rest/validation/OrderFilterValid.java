@@ -11,7 +11,7 @@ import java.lang.annotation.*;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface OrderFilterValid {
 
-    String message() default "Поля пагинации должны быть указаны! Если вы указываете minCost или maxCost, то оба должны указаны!";
+    String message() default "Размер страницы должен быть указан, а номер страницы и курсор не могут быть указаны одновременно! Если вы указываете minCost или maxCost, то оба должны указаны!";
 
     Class<?>[] groups() default {};
 
@@ -9,7 +9,11 @@ public class OrderFilterValidValidator implements ConstraintValidator<OrderFilte
 
     @Override
     public boolean isValid(OrderFilter value, ConstraintValidatorContext context) {
-        if (ObjectUtils.anyNull(value.getPageNumber(), value.getPageSize())) {
+        if (value.getPageSize() == null) {
+            return false;
+        }
+
+        if (ObjectUtils.allNotNull(value.getPageNumber(), value.getCursor())) {
             return false;
         }
 
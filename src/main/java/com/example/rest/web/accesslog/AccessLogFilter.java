@@ -0,0 +1,118 @@
+package com.example.rest.web.accesslog;
+
+import com.example.rest.web.correlation.CorrelationId;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Одна запись журнала доступа на запрос: метод, шаблон пути, статус, время и идентификаторы.
+ * Успешные запросы пишутся с долей {@code app.access-log.sample-rate}, ошибки сервера - всегда.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLogWriter accessLogWriter;
+
+    private final double sampleRate;
+
+    public AccessLogFilter(AccessLogWriter accessLogWriter, @Value("${app.access-log.sample-rate:1.0}") double sampleRate) {
+        this.accessLogWriter = accessLogWriter;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        String requestId = CorrelationId.current();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, requestId, start));
+            } else {
+                publish(request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(), requestId, start);
+            }
+        }
+    }
+
+    private void publish(HttpServletRequest request, int status, String requestId, long start) {
+        if (status < HttpServletResponse.SC_INTERNAL_SERVER_ERROR && !sampled()) {
+            return;
+        }
+
+        long latency = System.nanoTime() - start;
+        HttpSession session = request.getSession(false);
+        accessLogWriter.publish(new AccessLogRecord(
+                System.currentTimeMillis(),
+                request.getMethod(),
+                pathOf(request),
+                status,
+                latency,
+                requestId,
+                session == null ? null : session.getId()));
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+
+        private final HttpServletResponse response;
+
+        private final String requestId;
+
+        private final long start;
+
+        private CompletionListener(HttpServletRequest request, HttpServletResponse response, String requestId, long start) {
+            this.request = request;
+            this.response = response;
+            this.requestId = requestId;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            publish(request, response.getStatus(), requestId, start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.rest.web.accesslog;
+
+import java.time.Instant;
+
+/**
+ * Одна запись журнала доступа. В журнал пишется одной строкой в формате logfmt.
+ */
+public record AccessLogRecord(long timestamp,
+                              String method,
+                              String path,
+                              int status,
+                              long latencyNanos,
+                              String requestId,
+                              String sessionId) {
+
+    void appendTo(StringBuilder out) {
+        out.append("ts=").append(Instant.ofEpochMilli(timestamp));
+        out.append(" method=").append(method);
+        out.append(" path=");
+        appendValue(out, path);
+        out.append(" status=").append(status);
+        out.append(" latency_ms=").append(latencyNanos / 1_000 / 1_000.0);
+        out.append(" request_id=");
+        appendValue(out, requestId);
+        if (sessionId != null) {
+            out.append(" session_id=");
+            appendValue(out, sessionId);
+        }
+    }
+
+    private static void appendValue(StringBuilder out, String value) {
+        if (value == null || value.isEmpty()) {
+            out.append('-');
+            return;
+        }
+        if (!needsQuotes(value)) {
+            out.append(value);
+            return;
+        }
+
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c <= ' ' || c == '"' || c == '=' || c == '\\') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
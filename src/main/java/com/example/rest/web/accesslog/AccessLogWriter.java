@@ -0,0 +1,113 @@
+package com.example.rest.web.accesslog;
+
+import com.example.rest.utils.MpscRingBuffer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронная запись журнала доступа. Потоки запросов только кладут запись в кольцевой буфер,
+ * форматирует и пишет в лог {@value #LOGGER_NAME} единственный фоновый поток.
+ * Если буфер полон, запись отбрасывается и учитывается в счётчике {@code app.access-log.dropped}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogWriter implements SmartLifecycle {
+
+    static final String LOGGER_NAME = "access-log";
+
+    private static final Logger accessLog = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final MpscRingBuffer<AccessLogRecord> buffer;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private volatile boolean running;
+
+    private Thread writerThread;
+
+    public AccessLogWriter(@Value("${app.access-log.buffer-size:8192}") int bufferSize, MeterRegistry meterRegistry) {
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        FunctionCounter.builder("app.access-log.dropped", dropped, LongAdder::sum)
+                .description("Записи журнала доступа, отброшенные из-за переполнения буфера")
+                .register(meterRegistry);
+    }
+
+    public void publish(AccessLogRecord record) {
+        if (!buffer.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("access-log-writer")
+                .daemon()
+                .start(this::writeLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Запускается раньше веб-сервера и останавливается после него, чтобы не терять последние запросы.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            if (buffer.drain(this::write, BATCH_SIZE) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        while (buffer.drain(this::write, BATCH_SIZE) > 0) {
+            // дописываем то, что осталось в буфере
+        }
+    }
+
+    private void write(AccessLogRecord record) {
+        try {
+            line.setLength(0);
+            record.appendTo(line);
+            accessLog.info(line.toString());
+        } catch (RuntimeException ex) {
+            log.warn("Не удалось записать журнал доступа", ex);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.rest.web.apikey;
+
+import com.example.rest.utils.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Зарегистрированный ключ API: имя для метрик, хеш SHA-256, ограничитель и метрики ключа.
+ */
+public record ApiKey(String name,
+                     byte[] hash,
+                     double permitsPerSecond,
+                     int burst,
+                     RateLimiter rateLimiter,
+                     Counter allowed,
+                     Counter throttled,
+                     Timer latency) {
+}
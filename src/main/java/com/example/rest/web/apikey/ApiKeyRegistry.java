@@ -0,0 +1,187 @@
+package com.example.rest.web.apikey;
+
+import com.example.rest.utils.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Реестр ключей API. Хранятся только хеши SHA-256: ключ из запроса хешируется, хеш ищется
+ * в таблице и сверяется через {@link MessageDigest#isEqual}, поэтому время проверки не зависит
+ * от того, насколько ключ похож на настоящий.
+ * <p>
+ * Ключи читаются из файла {@code app.api-keys.file} и перечитываются при его изменении:
+ * <pre>
+ * billing.sha256=&lt;hex SHA-256 ключа&gt;
+ * billing.rate=50
+ * billing.burst=100
+ * </pre>
+ * Если файл не задан, используется единственный ключ {@code app.client-api-key}.
+ * Лимиты ключа с тем же хешем и теми же настройками переживают перезагрузку.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${app.check-client-api-header:true}")
+public class ApiKeyRegistry {
+
+    private static final String HASH_SUFFIX = ".sha256";
+
+    private static final String DEFAULT_KEY_NAME = "default";
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static final MessageDigest SHA_256_PROTOTYPE = sha256();
+
+    private final MeterRegistry meterRegistry;
+
+    private final Path keysFile;
+
+    private final double defaultRate;
+
+    private final int defaultBurst;
+
+    private volatile Map<String, ApiKey> keysByHash = Map.of();
+
+    private volatile FileTime loadedModifiedTime;
+
+    public ApiKeyRegistry(MeterRegistry meterRegistry,
+                          @Value("${app.api-keys.file:}") String keysFile,
+                          @Value("${app.client-api-key:}") String defaultKey,
+                          @Value("${app.api-keys.default-rate:100}") double defaultRate,
+                          @Value("${app.api-keys.default-burst:200}") int defaultBurst) {
+        this.meterRegistry = meterRegistry;
+        this.keysFile = keysFile.isBlank() ? null : Path.of(keysFile);
+        this.defaultRate = defaultRate;
+        this.defaultBurst = defaultBurst;
+
+        if (this.keysFile == null) {
+            Map<String, byte[]> hashes = defaultKey.isEmpty() ? Map.of() : Map.of(DEFAULT_KEY_NAME, hash(defaultKey));
+            keysByHash = index(hashes, new Properties());
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Возвращает ключ по значению из заголовка или {@code null}, если такого ключа нет.
+     */
+    public ApiKey find(String presentedKey) {
+        if (presentedKey == null || presentedKey.isEmpty()) {
+            return null;
+        }
+
+        byte[] hash = hash(presentedKey);
+        ApiKey key = keysByHash.get(HEX.formatHex(hash));
+
+        return key != null && MessageDigest.isEqual(key.hash(), hash) ? key : null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.api-keys.reload-interval:10s}")
+    public void reloadIfChanged() {
+        if (keysFile == null) {
+            return;
+        }
+
+        try {
+            if (!Files.getLastModifiedTime(keysFile).equals(loadedModifiedTime)) {
+                reload();
+            }
+        } catch (IOException ex) {
+            log.warn("Не удалось проверить файл ключей API {}", keysFile, ex);
+        }
+    }
+
+    private synchronized void reload() {
+        try {
+            FileTime modifiedTime = Files.getLastModifiedTime(keysFile);
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(keysFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+
+            Map<String, byte[]> hashes = new HashMap<>();
+            for (String property : properties.stringPropertyNames()) {
+                if (property.endsWith(HASH_SUFFIX)) {
+                    String name = property.substring(0, property.length() - HASH_SUFFIX.length());
+                    hashes.put(name, HEX.parseHex(properties.getProperty(property).trim().toLowerCase()));
+                }
+            }
+
+            keysByHash = index(hashes, properties);
+            loadedModifiedTime = modifiedTime;
+            log.info("Загружено ключей API: {}", hashes.size());
+        } catch (IOException | IllegalArgumentException ex) {
+            log.error("Не удалось загрузить ключи API из {}, остаются прежние", keysFile, ex);
+        }
+    }
+
+    private Map<String, ApiKey> index(Map<String, byte[]> hashes, Properties properties) {
+        Map<String, ApiKey> previous = keysByHash;
+        Map<String, ApiKey> result = new HashMap<>();
+
+        hashes.forEach((name, hash) -> {
+            double rate = Double.parseDouble(properties.getProperty(name + ".rate", String.valueOf(defaultRate)));
+            int burst = Integer.parseInt(properties.getProperty(name + ".burst", String.valueOf(defaultBurst)));
+            String hex = HEX.formatHex(hash);
+
+            ApiKey existing = previous.get(hex);
+            RateLimiter rateLimiter = existing != null && existing.permitsPerSecond() == rate && existing.burst() == burst
+                    ? existing.rateLimiter()
+                    : new RateLimiter(rate, burst);
+
+            result.put(hex, new ApiKey(name, hash, rate, burst, rateLimiter,
+                    requests(name, "allowed"), requests(name, "throttled"), latency(name)));
+        });
+
+        return Map.copyOf(result);
+    }
+
+    private Counter requests(String name, String outcome) {
+        return Counter.builder("app.api-key.requests")
+                .description("Запросы по ключам API")
+                .tag("key", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Timer latency(String name) {
+        return Timer.builder("app.api-key.latency")
+                .description("Время обработки запросов по ключам API")
+                .tag("key", name)
+                .register(meterRegistry);
+    }
+
+    private static byte[] hash(String value) {
+        try {
+            return ((MessageDigest) SHA_256_PROTOTYPE.clone()).digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (CloneNotSupportedException ex) {
+            return sha256().digest(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.rest.web.controller;
 
 import com.example.rest.exception.EntityNotFoundException;
+import com.example.rest.exception.InvalidCursorException;
+import com.example.rest.exception.InvalidFilterException;
+import com.example.rest.exception.PreconditionFailedException;
+import com.example.rest.exception.UpdateStateException;
 import com.example.rest.web.model.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -27,6 +35,37 @@ public class ExceptionHandlerController {
 
     }
 
+    @ExceptionHandler({InvalidCursorException.class, InvalidFilterException.class})
+    public ResponseEntity<ErrorResponse> badRequest(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(ex.getLocalizedMessage()));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> preconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ErrorResponse(ex.getLocalizedMessage()));
+    }
+
+    @ExceptionHandler(UpdateStateException.class)
+    public ResponseEntity<ErrorResponse> updateConflict(UpdateStateException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(ex.getLocalizedMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> concurrentUpdate(OptimisticLockingFailureException ex) {
+        log.warn("Конкурентное изменение сущности", ex);
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("Сущность была изменена другим запросом!"));
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> databaseUnavailable(RuntimeException ex) {
+        log.warn("Нет свободного соединения с базой данных: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse("Сервис перегружен, повторите запрос позже"));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> notValid(MethodArgumentNotValidException ex){
         BindingResult bindingResult = ex.getBindingResult();
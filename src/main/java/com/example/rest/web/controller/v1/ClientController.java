@@ -1,11 +1,14 @@
 package com.example.rest.web.controller.v1;
 
+import com.example.rest.exception.InvalidFilterException;
 import com.example.rest.mapper.v1.ClientMapper;
 import com.example.rest.model.Client;
+import com.example.rest.model.ClientOrderSummary;
 import com.example.rest.service.ClientService;
 import com.example.rest.web.model.ClientListResponse;
 import com.example.rest.web.model.ClientResponse;
 import com.example.rest.web.model.ErrorResponse;
+import com.example.rest.web.model.TextMatch;
 import com.example.rest.web.model.UpsertClientRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,6 +22,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/client")
 @RequiredArgsConstructor
@@ -34,13 +39,38 @@ public class ClientController {
             tags = {"client"}
     )
     @GetMapping
-    public ResponseEntity<ClientListResponse> findAll() {
+    public ResponseEntity<ClientListResponse> findAll(@RequestParam(defaultValue = "false") boolean summaryOnly) {
+        List<Client> clients = clientServiceImpl.findAll();
+        if (summaryOnly) {
+            return ResponseEntity.ok(new ClientListResponse(clients.stream()
+                    .map(client -> clientMapper.clientToSummaryResponse(client, clientServiceImpl.findSummaryById(client.getId())))
+                    .toList()));
+        }
+
         return ResponseEntity.ok(
-                clientMapper.clientListToClientResponse(clientServiceImpl.findAll())
+                clientMapper.clientListToClientResponse(clients)
         );
     }
 
 
+    @Operation(
+            summary = "Search Clients by name",
+            description = "Case-insensitive search of Clients by name prefix or substring",
+            tags = {"client"}
+    )
+    @GetMapping("/search")
+    public ResponseEntity<ClientListResponse> search(@RequestParam String name,
+                                                     @RequestParam(defaultValue = "CONTAINS") TextMatch match,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        if (name.isBlank()) {
+            throw new InvalidFilterException("Строка поиска не может быть пустой!");
+        }
+
+        return ResponseEntity.ok(
+                clientMapper.clientListToClientResponse(
+                        clientServiceImpl.searchByName(name, match, Math.clamp(limit, 1, 100))));
+    }
+
     @Operation(
             summary = "Get Client by ID",
             description = "Get Client by ID, return id, name and list of orders",
@@ -59,9 +89,26 @@ public class ClientController {
             )}
     )
     @GetMapping("/{id}")
-    public ResponseEntity<ClientResponse> findById(@PathVariable Long id) {
+    public ResponseEntity<ClientResponse> findById(@PathVariable Long id,
+                                                   @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        Client client = clientServiceImpl.findById(id);
+        if (summaryOnly) {
+            return ResponseEntity.ok(
+                    clientMapper.clientToSummaryResponse(client, clientServiceImpl.findSummaryById(id)));
+        }
+
         return ResponseEntity.ok(
-                clientMapper.clientToResponse(clientServiceImpl.findById(id)));
+                clientMapper.clientToResponse(client));
+    }
+
+    @Operation(
+            summary = "Get Client order summary",
+            description = "Get order count, total cost and last order time of the Client by ID",
+            tags = {"client", "id"}
+    )
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<ClientOrderSummary> findSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(clientServiceImpl.findSummaryById(id));
     }
 
     @PostMapping
@@ -3,14 +3,19 @@ package com.example.rest.web.controller.v1;
 import com.example.rest.mapper.v1.OrderMapper;
 import com.example.rest.model.Order;
 import com.example.rest.service.OrderService;
+import com.example.rest.web.model.OrderCursor;
+import com.example.rest.web.model.OrderFilter;
 import com.example.rest.web.model.OrderListResponse;
 import com.example.rest.web.model.OrderResponse;
 import com.example.rest.web.model.UpsertOrderRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/order")
 @RequiredArgsConstructor
@@ -20,6 +25,18 @@ public class OrderController {
 
     private final OrderMapper orderMapper;
 
+    @GetMapping("/filter")
+    public ResponseEntity<OrderListResponse> filterBy(@Valid OrderFilter filter) {
+        List<Order> orders = orderServiceImpl.filterBy(filter);
+        OrderListResponse response = orderMapper.orderListToOrderListResponse(orders);
+
+        if (filter.usesCursor() && orders.size() == filter.getPageSize()) {
+            response.setNextCursor(OrderCursor.of(orders.get(orders.size() - 1)).encode());
+        }
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     public ResponseEntity<OrderListResponse> findAll() {
         return ResponseEntity.ok(
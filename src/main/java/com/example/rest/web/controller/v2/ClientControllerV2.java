@@ -1,18 +1,24 @@
 package com.example.rest.web.controller.v2;
 
+import com.example.rest.exception.InvalidFilterException;
 import com.example.rest.mapper.v2.ClientMapperV2;
 import com.example.rest.model.Client;
 import com.example.rest.model.Order;
+import com.example.rest.model.ResourceStamp;
 import com.example.rest.service.ClientService;
+import com.example.rest.utils.VersionTags;
 import com.example.rest.web.model.ClientListResponse;
 import com.example.rest.web.model.ClientResponse;
 import com.example.rest.web.model.CreateClientWithOrderRequest;
+import com.example.rest.web.model.TextMatch;
 import com.example.rest.web.model.UpsertClientRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,17 +32,46 @@ public class ClientControllerV2 {
     private final ClientMapperV2 clientMapper;
 
     @GetMapping
-    public ResponseEntity<ClientListResponse> findAll() {
+    public ResponseEntity<ClientListResponse> findAll(WebRequest webRequest) {
+        ResourceStamp stamp = dataBaseClientService.findAllStamp();
+        if (webRequest.checkNotModified(stamp.eTag())) {
+            return null;
+        }
+
         return ResponseEntity.ok(
                 clientMapper.clientListToClientResponseList(
                         dataBaseClientService.findAll()));
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ClientListResponse> findPage(@RequestParam(defaultValue = "0") int pageNumber,
+                                                       @RequestParam(defaultValue = "20") int pageSize) {
+        return ResponseEntity.ok(
+                clientMapper.clientListToClientResponseList(
+                        dataBaseClientService.findAll(Math.max(pageNumber, 0), Math.clamp(pageSize, 1, 100))));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ClientListResponse> search(@RequestParam String name,
+                                                     @RequestParam(defaultValue = "CONTAINS") TextMatch match,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        if (name.isBlank()) {
+            throw new InvalidFilterException("Строка поиска не может быть пустой!");
+        }
+
+        return ResponseEntity.ok(
+                clientMapper.clientListToClientResponseList(
+                        dataBaseClientService.searchByName(name, match, Math.clamp(limit, 1, 100))));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ClientResponse> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(clientMapper.clientToResponse(
-                dataBaseClientService.findById(id)
-        ));
+    public ResponseEntity<ClientResponse> findById(@PathVariable Long id, WebRequest webRequest) {
+        ResourceStamp stamp = dataBaseClientService.findStampById(id);
+        if (webRequest.checkNotModified(stamp.eTag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok(clientMapper.clientToResponse(dataBaseClientService.findById(id)));
     }
 
     @PostMapping
@@ -44,14 +79,22 @@ public class ClientControllerV2 {
         Client newClient = dataBaseClientService.save(clientMapper.requestToCLient(request));
 
         return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(dataBaseClientService.findStampById(newClient.getId()).eTag())
                 .body(clientMapper.clientToResponse(newClient));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ClientResponse> update(@PathVariable("id") Long clientId, @RequestBody @Valid UpsertClientRequest request) {
-        Client updatedClient = dataBaseClientService.update(clientMapper.requestToClient(clientId, request));
+    public ResponseEntity<ClientResponse> update(@PathVariable("id") Long clientId,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestBody @Valid UpsertClientRequest request) {
+        Client client = clientMapper.requestToClient(clientId, request);
+        Client updatedClient = VersionTags.isAny(ifMatch)
+                ? dataBaseClientService.update(client)
+                : dataBaseClientService.update(client, VersionTags.parse(ifMatch));
 
-        return ResponseEntity.ok(clientMapper.clientToResponse(updatedClient));
+        return ResponseEntity.ok()
+                .eTag(dataBaseClientService.findStampById(updatedClient.getId()).eTag())
+                .body(clientMapper.clientToResponse(updatedClient));
     }
 
     @DeleteMapping("/{id}")
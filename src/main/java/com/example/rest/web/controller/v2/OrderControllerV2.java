@@ -1,20 +1,36 @@
 package com.example.rest.web.controller.v2;
 
+import com.example.rest.exception.InvalidFilterException;
 import com.example.rest.mapper.v2.OrderMapperV2;
 import com.example.rest.model.Order;
+import com.example.rest.model.ResourceStamp;
 import com.example.rest.service.OrderService;
+import com.example.rest.utils.VersionTags;
+import com.example.rest.web.model.OrderCursor;
 import com.example.rest.web.model.OrderFilter;
 import com.example.rest.web.model.OrderListResponse;
 import com.example.rest.web.model.OrderResponse;
+import com.example.rest.web.model.OrderStatsGroupBy;
+import com.example.rest.web.model.OrderStatsResponse;
 import com.example.rest.web.model.UpsertOrderRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -27,15 +43,58 @@ public class OrderControllerV2 {
 
     private final OrderMapperV2 orderMapper;
 
+    private final ObjectMapper objectMapper;
+
     @GetMapping("/filter")
     public ResponseEntity<OrderListResponse> filterBy(@Valid OrderFilter filter){
-        return ResponseEntity.ok(
-                orderMapper.orderListToOrderListResponse(
-                        dataBaseOrderService.filterBy(filter)));
+        List<Order> orders = dataBaseOrderService.filterBy(filter);
+        OrderListResponse response = orderMapper.orderListToOrderListResponse(orders);
+
+        if (filter.usesCursor() && orders.size() == filter.getPageSize()) {
+            response.setNextCursor(OrderCursor.of(orders.get(orders.size() - 1)).encode());
+        }
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStatsResponse> stats(OrderFilter filter, @RequestParam OrderStatsGroupBy groupBy) {
+        return ResponseEntity.ok(new OrderStatsResponse(groupBy, dataBaseOrderService.statsBy(filter, groupBy)));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(OrderFilter filter) {
+        ObjectWriter writer = objectMapper.writerFor(OrderResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+
+                dataBaseOrderService.exportBy(filter, order -> {
+                    try {
+                        writer.writeValue(generator, orderMapper.orderToResponse(order));
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping
-    public ResponseEntity<OrderListResponse> findAll() {
+    public ResponseEntity<OrderListResponse> findAll(WebRequest webRequest) {
+        ResourceStamp stamp = dataBaseOrderService.findAllStamp();
+        if (webRequest.checkNotModified(stamp.eTag())) {
+            return null;
+        }
+
         return ResponseEntity.ok(
                 orderMapper.orderListToOrderListResponse(
                         dataBaseOrderService.findAll()
@@ -44,12 +103,13 @@ public class OrderControllerV2 {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<OrderResponse> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(
-                orderMapper.orderToResponse(
-                        dataBaseOrderService.findById(id)
-                )
-        );
+    public ResponseEntity<OrderResponse> findById(@PathVariable Long id, WebRequest webRequest) {
+        ResourceStamp stamp = dataBaseOrderService.findStampById(id);
+        if (webRequest.checkNotModified(stamp.eTag(), stamp.lastModifiedMillis())) {
+            return null;
+        }
+
+        return ResponseEntity.ok(orderMapper.orderToResponse(dataBaseOrderService.findById(id)));
     }
 
     @PostMapping
@@ -57,14 +117,22 @@ public class OrderControllerV2 {
         Order newOrder = dataBaseOrderService.save(orderMapper.requestToOrder(request));
 
         return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(VersionTags.of(newOrder.getVersion()))
                 .body(orderMapper.orderToResponse(newOrder));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<OrderResponse> update(@PathVariable("id") Long orderId, @RequestBody @Valid UpsertOrderRequest request){
-        Order updatedOrder = dataBaseOrderService.update(orderMapper.requestToOrder(orderId, request));
+    public ResponseEntity<OrderResponse> update(@PathVariable("id") Long orderId,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @RequestBody @Valid UpsertOrderRequest request){
+        Order order = orderMapper.requestToOrder(orderId, request);
+        Order updatedOrder = VersionTags.isAny(ifMatch)
+                ? dataBaseOrderService.update(order)
+                : dataBaseOrderService.update(order, VersionTags.parse(ifMatch));
 
-        return ResponseEntity.ok(orderMapper.orderToResponse(updatedOrder));
+        return ResponseEntity.ok()
+                .eTag(VersionTags.of(updatedOrder.getVersion()))
+                .body(orderMapper.orderToResponse(updatedOrder));
     }
 
     @DeleteMapping("/{id}")
@@ -73,4 +141,21 @@ public class OrderControllerV2 {
 
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping
+    public ResponseEntity<Void> deleteByIds(@RequestParam List<Long> ids) {
+        dataBaseOrderService.deleteByIdIn(ids);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/filter")
+    public ResponseEntity<Void> deleteBy(OrderFilter filter) {
+        if (!filter.hasCriteria()) {
+            throw new InvalidFilterException("Для удаления по фильтру нужно указать хотя бы один критерий!");
+        }
+        dataBaseOrderService.deleteBy(filter);
+
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.rest.web.correlation;
+
+import org.slf4j.MDC;
+
+/**
+ * Идентификатор текущего запроса. Хранится в {@link ThreadLocal} и дублируется в MDC
+ * под ключом {@value #MDC_KEY}, поэтому попадает во все строки лога запроса.
+ */
+public final class CorrelationId {
+
+    public static final String HEADER = "X-Request-Id";
+
+    public static final String MDC_KEY = "requestId";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private CorrelationId() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Делает идентификатор текущим до закрытия возвращённой области, затем восстанавливает прежний.
+     */
+    public static Scope open(String id) {
+        String previous = CURRENT.get();
+        set(id);
+
+        return () -> set(previous);
+    }
+
+    private static void set(String id) {
+        if (id == null) {
+            CURRENT.remove();
+            MDC.remove(MDC_KEY);
+        } else {
+            CURRENT.set(id);
+            MDC.put(MDC_KEY, id);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.rest.web.correlation;
+
+import com.example.rest.utils.UlidGenerator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Назначает запросу идентификатор: берёт корректный входящий {@value CorrelationId#HEADER}
+ * или генерирует ULID, возвращает его в ответе и держит в {@link CorrelationId} на время обработки.
+ * В режиме {@code app.correlation.stateless} запрос не может создать HTTP-сессию: {@code getSession()}
+ * и {@code getSession(true)} бросают {@link IllegalStateException}, работает только {@code getSession(false)}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    private static final int MAX_INBOUND_LENGTH = 64;
+
+    private final boolean stateless;
+
+    public CorrelationIdFilter(@Value("${app.correlation.stateless:true}") boolean stateless) {
+        this.stateless = stateless;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(CorrelationId.HEADER);
+        if (!isValid(requestId)) {
+            requestId = UlidGenerator.next();
+        }
+        response.setHeader(CorrelationId.HEADER, requestId);
+
+        try (CorrelationId.Scope ignored = CorrelationId.open(requestId)) {
+            filterChain.doFilter(stateless ? new StatelessRequest(request) : request, response);
+        }
+    }
+
+    private static boolean isValid(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_INBOUND_LENGTH) {
+            return false;
+        }
+
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean allowed = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || c == '-' || c == '_' || c == '.' || c == ':';
+            if (!allowed) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static final class StatelessRequest extends HttpServletRequestWrapper {
+
+        private StatelessRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            if (create) {
+                throw new IllegalStateException("stateless mode: sessions are disabled");
+            }
+
+            return super.getSession(false);
+        }
+    }
+}
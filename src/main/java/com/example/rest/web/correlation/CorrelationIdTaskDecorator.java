@@ -0,0 +1,26 @@
+package com.example.rest.web.correlation;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Переносит идентификатор запроса в асинхронные задачи: Spring Boot применяет декоратор
+ * к {@code applicationTaskExecutor}, на котором выполняются, например, потоковые ответы MVC.
+ */
+@Component
+public class CorrelationIdTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String requestId = CorrelationId.current();
+        if (requestId == null) {
+            return runnable;
+        }
+
+        return () -> {
+            try (CorrelationId.Scope ignored = CorrelationId.open(requestId)) {
+                runnable.run();
+            }
+        };
+    }
+}
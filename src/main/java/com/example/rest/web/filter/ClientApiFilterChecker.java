@@ -1,37 +1,60 @@
 package com.example.rest.web.filter;
 
+import com.example.rest.web.apikey.ApiKey;
+import com.example.rest.web.apikey.ApiKeyRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
+import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Проверка ключа из заголовка {@code X-Client-Api-Key} по {@link ApiKeyRegistry} и ограничение
+ * скорости запросов для каждого ключа: сверх лимита запрос получает 429 с {@code Retry-After}
+ * и не доходит до контроллеров и базы.
+ */
 @Component
+@RequiredArgsConstructor
 @ConditionalOnExpression("${app.check-client-api-header:true}")
 public class ClientApiFilterChecker extends OncePerRequestFilter {
 
     private static final String HTTP_CLIENT_HEADER = "X-Client-Api-Key";
 
-    @Value("${app.client-api-key}")
-    private String clientApiKey;
+    private final ApiKeyRegistry apiKeyRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        String headerValue = request.getHeader(HTTP_CLIENT_HEADER);
+        ApiKey apiKey = apiKeyRegistry.find(request.getHeader(HTTP_CLIENT_HEADER));
 
-        if (headerValue == null || !headerValue.equals(clientApiKey)) {
+        if (apiKey == null) {
             response.setHeader(HTTP_CLIENT_HEADER,"invalid");
             response.sendError(HttpStatus.BAD_REQUEST.value(), "Заголовок X-Client-Api-Key отсутствует или указан неверно!");
             return;
         }
 
-        filterChain.doFilter(request, response);
+        long start = System.nanoTime();
+        long waitNanos = apiKey.rateLimiter().tryAcquire(start);
+        if (waitNanos > 0) {
+            apiKey.throttled().increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, Math.ceilDiv(waitNanos, TimeUnit.SECONDS.toNanos(1)))));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Превышен лимит запросов для ключа API!");
+            return;
+        }
+
+        apiKey.allowed().increment();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            apiKey.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     @Override
@@ -41,5 +64,4 @@ public class ClientApiFilterChecker extends OncePerRequestFilter {
                 path.startsWith("/v3/api-docs") ||
                 path.startsWith("/swagger-resources");
     }
-
 }
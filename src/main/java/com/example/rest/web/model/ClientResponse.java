@@ -1,5 +1,7 @@
 package com.example.rest.web.model;
 
+import com.example.rest.model.ClientOrderSummary;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,5 +18,13 @@ public class ClientResponse {
 
     private String name;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<OrderResponse> orders = new ArrayList<>();
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ClientOrderSummary summary;
+
+    public ClientResponse(Long id, String name, List<OrderResponse> orders) {
+        this(id, name, orders, null);
+    }
 }
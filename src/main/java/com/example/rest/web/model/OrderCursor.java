@@ -0,0 +1,39 @@
+package com.example.rest.web.model;
+
+import com.example.rest.exception.InvalidCursorException;
+import com.example.rest.model.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+public record OrderCursor(Instant createAt, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getCreateAt(), order.getId());
+    }
+
+    public static OrderCursor decode(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR);
+
+            return new OrderCursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2]));
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException("Некорректный курсор пагинации!");
+        }
+    }
+
+    public String encode() {
+        String value = createAt.getEpochSecond() + SEPARATOR + createAt.getNano() + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,6 +3,8 @@ package com.example.rest.web.model;
 import com.example.rest.validation.OrderFilterValid;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -18,6 +20,10 @@ public class OrderFilter {
 
     private String productName;
 
+    private String productPrefix;
+
+    private String productContains;
+
     private BigDecimal minCost;
 
     private BigDecimal maxCost;
@@ -27,4 +33,25 @@ public class OrderFilter {
     private Instant updatedBefore;
 
     private Long clientId;
+
+    private String cursor;
+
+    /**
+     * Пустая строка поиска - не условие: иначе шаблон совпал бы с любым товаром.
+     */
+    public void setProductPrefix(String productPrefix) {
+        this.productPrefix = StringUtils.isBlank(productPrefix) ? null : productPrefix;
+    }
+
+    public void setProductContains(String productContains) {
+        this.productContains = StringUtils.isBlank(productContains) ? null : productContains;
+    }
+
+    public boolean usesCursor() {
+        return pageNumber == null;
+    }
+
+    public boolean hasCriteria() {
+        return ObjectUtils.anyNotNull(productName, productPrefix, productContains, minCost, maxCost, createdBefore, updatedBefore, clientId);
+    }
 }
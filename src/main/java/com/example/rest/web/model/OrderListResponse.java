@@ -1,5 +1,6 @@
 package com.example.rest.web.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -10,4 +11,7 @@ public class OrderListResponse {
 
     private List<OrderResponse> orders = new ArrayList<>();
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
 }
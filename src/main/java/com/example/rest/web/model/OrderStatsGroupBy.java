@@ -0,0 +1,46 @@
+package com.example.rest.web.model;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Группировка статистики заказов: по клиенту, по товару или по интервалу {@code createAt} в UTC.
+ * Для интервалов задано имя SQL-функции из {@link com.example.rest.configuration.DateTruncFunctionContributor}.
+ */
+public enum OrderStatsGroupBy {
+
+    CLIENT(null),
+    PRODUCT(null),
+    HOUR("date_trunc_utc_hour"),
+    DAY("date_trunc_utc_day"),
+    WEEK("date_trunc_utc_week"),
+    MONTH("date_trunc_utc_month");
+
+    private final String bucketFunction;
+
+    OrderStatsGroupBy(String bucketFunction) {
+        this.bucketFunction = bucketFunction;
+    }
+
+    public String getBucketFunction() {
+        return bucketFunction;
+    }
+
+    /**
+     * Начало интервала так же, как его считает {@code date_trunc(..., 'UTC')} в Postgres: неделя с понедельника.
+     */
+    public Instant truncate(Instant instant) {
+        return switch (this) {
+            case HOUR -> instant.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> instant.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> instant.atOffset(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS)
+                    .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toInstant();
+            case MONTH -> instant.atOffset(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS)
+                    .withDayOfMonth(1).toInstant();
+            default -> throw new IllegalStateException("Группировка " + this + " не является интервалом времени");
+        };
+    }
+}
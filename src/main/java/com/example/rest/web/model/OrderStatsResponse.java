@@ -0,0 +1,19 @@
+package com.example.rest.web.model;
+
+import com.example.rest.model.OrderStats;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatsResponse {
+
+    private OrderStatsGroupBy groupBy;
+
+    private List<OrderStats> stats = new ArrayList<>();
+}
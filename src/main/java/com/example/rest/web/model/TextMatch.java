@@ -0,0 +1,10 @@
+package com.example.rest.web.model;
+
+/**
+ * Режим текстового поиска без учёта регистра.
+ */
+public enum TextMatch {
+
+    PREFIX,
+    CONTAINS
+}
@@ -0,0 +1,8 @@
+-- Индексы для поиска по подстроке (LIKE по lower(...)). Разовый скрипт: выполняется вручную
+-- или при запуске с app.search-indexes.init-mode=always после того, как Hibernate создал таблицы.
+-- Расширение pg_trgm создаётся заранее с правами суперпользователя (см. docker/init.sql).
+-- Без индексов поиск работает так же, но полным просмотром таблицы.
+
+CREATE INDEX IF NOT EXISTS orders_product_trgm_idx ON orders USING gin (lower(product) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS clients_client_name_trgm_idx ON clients USING gin (lower(client_name) gin_trgm_ops);
@@ -0,0 +1,80 @@
+package com.example.rest.configuration;
+
+import com.example.rest.model.Client;
+import com.example.rest.repository.DataBaseClientRepository;
+import com.example.rest.repository.DatabaseOrderRepository;
+import com.example.rest.service.ClientService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.second-level-cache.enabled=true")
+@ActiveProfiles("test")
+public class SecondLevelCacheConfigurationTest {
+
+    @Autowired
+    private ClientService dataBaseClientService;
+
+    @Autowired
+    private DataBaseClientRepository clientRepository;
+
+    @Autowired
+    private DatabaseOrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        orderRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void whenClientIsReadTwice_thenSecondReadComesFromClientsRegion() {
+        Client client = clientRepository.save(Client.builder().name("Client 1").build());
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        dataBaseClientService.findById(client.getId());
+        dataBaseClientService.findById(client.getId());
+
+        CacheRegionStatistics clients = statistics.getDomainDataRegionStatistics("clients");
+        assertThat(clients.getMissCount()).isEqualTo(1);
+        assertThat(clients.getPutCount()).isEqualTo(1);
+        assertThat(clients.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenClientsAreDeletedInBulk_thenClientsRegionIsEvicted() {
+        Client deleted = clientRepository.save(Client.builder().name("Client 1").build());
+        Client kept = clientRepository.save(Client.builder().name("Client 2").build());
+        dataBaseClientService.findById(deleted.getId());
+        dataBaseClientService.findById(kept.getId());
+        assertThat(entityManagerFactory.getCache().contains(Client.class, deleted.getId())).isTrue();
+
+        dataBaseClientService.deleteById(deleted.getId());
+
+        assertThat(entityManagerFactory.getCache().contains(Client.class, deleted.getId())).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(Client.class, kept.getId())).isFalse();
+        assertThat(clientRepository.findById(deleted.getId())).isEmpty();
+        assertThat(dataBaseClientService.findById(kept.getId()).getName()).isEqualTo("Client 2");
+    }
+}
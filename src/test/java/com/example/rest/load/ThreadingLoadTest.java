@@ -0,0 +1,141 @@
+package com.example.rest.load;
+
+import com.example.rest.RestApplication;
+import com.example.rest.model.Client;
+import com.example.rest.model.Order;
+import com.example.rest.repository.DataBaseClientRepository;
+import com.example.rest.repository.DatabaseOrderRepository;
+import com.example.rest.service.ClientService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение задержек на платформенных и виртуальных потоках под всплеском нагрузки.
+ * Запускается отдельно: {@code ./gradlew loadTest}, нужна база из профиля test.
+ */
+@Tag("load")
+public class ThreadingLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingLoadTest.class);
+
+    private static final int CONCURRENCY = 400;
+
+    private static final int REQUESTS = 20_000;
+
+    private static final int TOMCAT_THREADS = 50;
+
+    @Test
+    public void compareP99LatencyBetweenPlatformAndVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        log.info("Потоки платформы: {}", platform);
+        log.info("Виртуальные потоки: {}", virtual);
+
+        assertThat(platform.errors()).as("ошибки на потоках платформы").isZero();
+        assertThat(virtual.errors()).as("ошибки на виртуальных потоках").isZero();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RestApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads)
+                .run()) {
+            seed(context);
+            try {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                URI uri = URI.create("http://localhost:" + port + "/api/v2/client/page?pageNumber=0&pageSize=20");
+
+                load(uri, REQUESTS / 10);
+                return load(uri, REQUESTS);
+            } finally {
+                context.getBean(DatabaseOrderRepository.class).deleteAllInBatch();
+                context.getBean(DataBaseClientRepository.class).deleteAllInBatch();
+            }
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        ClientService clientService = context.getBean("dataBaseClientService", ClientService.class);
+        for (int i = 1; i <= 100; i++) {
+            List<Order> orders = IntStream.rangeClosed(1, 10)
+                    .mapToObj(j -> Order.builder().product("Product " + j).cost(BigDecimal.valueOf(j)).build())
+                    .toList();
+            clientService.saveWithOrders(Client.builder().name("Client " + i).build(), orders);
+        }
+    }
+
+    private Result load(URI uri, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder().executor(executor).build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                inFlight.acquire();
+                executor.execute(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - start;
+                        inFlight.release();
+                    }
+                });
+            }
+            inFlight.acquire(CONCURRENCY);
+        }
+
+        return Result.of(latencies, errors.get());
+    }
+
+    private record Result(long p50, long p99, long max, int errors) {
+
+        static Result of(long[] latencies, int errors) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+
+            return new Result(
+                    sorted[(int) (sorted.length * 0.50)],
+                    sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * 0.99) - 1)],
+                    sorted[sorted.length - 1],
+                    errors);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("p50 %.1f мс, p99 %.1f мс, max %.1f мс, ошибок %d", p50 / 1e6, p99 / 1e6, max / 1e6, errors);
+        }
+    }
+}
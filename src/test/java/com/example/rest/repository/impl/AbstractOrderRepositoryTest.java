@@ -0,0 +1,253 @@
+package com.example.rest.repository.impl;
+
+import com.example.rest.model.Client;
+import com.example.rest.model.ClientOrderSummary;
+import com.example.rest.model.Order;
+import com.example.rest.repository.OrderRepository;
+import com.example.rest.web.model.OrderCursor;
+import com.example.rest.web.model.OrderFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Общие проверки хранилищ заказов: наследник только открывает хранилище и добавляет свои случаи.
+ */
+public abstract class AbstractOrderRepositoryTest<R extends OrderRepository> {
+
+    protected InMemoryClientRepository clientRepository;
+
+    protected R orderRepository;
+
+    protected Client firstClient;
+
+    protected Client secondClient;
+
+    /**
+     * Открывает хранилище и связывает его с {@link #clientRepository}.
+     */
+    protected abstract R open() throws IOException;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        clientRepository = new InMemoryClientRepository();
+        orderRepository = open();
+
+        firstClient = clientRepository.save(new Client(null, "Client 1", new ArrayList<>(), null));
+        secondClient = clientRepository.save(new Client(null, "Client 2", new ArrayList<>(), null));
+
+        for (int i = 0; i < 20; i++) {
+            Order order = new Order();
+            order.setProduct("Test product " + (i % 3));
+            order.setCost(BigDecimal.valueOf(i));
+            order.setClient(i % 2 == 0 ? firstClient : secondClient);
+            orderRepository.save(order);
+        }
+    }
+
+    @Test
+    public void whenFilterByClientAndProduct_thenReturnMatchingOrders() {
+        OrderFilter filter = pageFilter(0, 10);
+        filter.setClientId(firstClient.getId());
+        filter.setProductName("Test product 0");
+
+        assertThat(ids(orderRepository.filterBy(filter))).containsExactly(1L, 7L, 13L, 19L);
+    }
+
+    @Test
+    public void whenFilterByClientTextAndCost_thenAllConditionsApply() {
+        OrderFilter filter = pageFilter(0, 10);
+        filter.setClientId(firstClient.getId());
+        filter.setProductPrefix("TEST PRODUCT 0");
+        filter.setMaxCost(BigDecimal.valueOf(15));
+
+        List<Order> orders = orderRepository.filterBy(filter);
+
+        assertThat(ids(orders)).containsExactly(1L, 7L, 13L);
+        assertThat(orders.get(1).getCost()).isEqualByComparingTo("6");
+        assertThat(orders.get(1).getClient()).isSameAs(firstClient);
+    }
+
+    @Test
+    public void whenFilterByCostRange_thenReturnRequestedPage() {
+        OrderFilter filter = pageFilter(1, 5);
+        filter.setMinCost(BigDecimal.valueOf(3));
+        filter.setMaxCost(BigDecimal.valueOf(15));
+
+        assertThat(ids(orderRepository.filterBy(filter))).containsExactly(9L, 10L, 11L, 12L, 13L);
+    }
+
+    @Test
+    public void whenFilterByCursor_thenWalkAllOrdersOnce() {
+        OrderFilter filter = new OrderFilter();
+        filter.setPageSize(7);
+        List<Long> visited = new ArrayList<>();
+
+        List<Order> page;
+        do {
+            page = orderRepository.filterBy(filter);
+            visited.addAll(ids(page));
+            if (!page.isEmpty()) {
+                filter.setCursor(OrderCursor.of(page.get(page.size() - 1)).encode());
+            }
+        } while (page.size() == filter.getPageSize());
+
+        assertThat(visited).hasSize(20).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void whenOrdersSaved_thenClientVersionIsUnchanged() {
+        Client client = clientRepository.findById(firstClient.getId()).orElseThrow();
+
+        assertThat(client.getVersion()).isZero();
+        assertThat(clientRepository.update(new Client(client.getId(), "Client 1 renamed", null, null), 0L)
+                .getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    public void whenUpdateAndDelete_thenIndexesFollowChanges() {
+        Order update = new Order();
+        update.setId(3L);
+        update.setProduct("Updated product");
+        orderRepository.update(update);
+        orderRepository.deleteByIdIn(List.of(6L, 9L));
+
+        OrderFilter filter = pageFilter(0, 10);
+        filter.setProductName("Updated product");
+        assertThat(ids(orderRepository.filterBy(filter))).containsExactly(3L);
+
+        filter.setProductName("Test product 2");
+        assertThat(ids(orderRepository.filterBy(filter))).containsExactly(12L, 15L, 18L);
+    }
+
+    @Test
+    public void whenSearchByProductText_thenMatchIgnoringCase() {
+        Order update = new Order();
+        update.setId(3L);
+        update.setProduct("Blue Widget");
+        orderRepository.update(update);
+
+        OrderFilter filter = pageFilter(0, 10);
+        filter.setProductContains("DUCT 2");
+        assertThat(ids(orderRepository.filterBy(filter))).containsExactly(6L, 9L, 12L, 15L, 18L);
+
+        filter = pageFilter(0, 10);
+        filter.setProductPrefix("test product 1");
+        assertThat(ids(orderRepository.filterBy(filter))).containsExactly(2L, 5L, 8L, 11L, 14L, 17L, 20L);
+
+        filter = pageFilter(0, 10);
+        filter.setProductPrefix("bl");
+        filter.setProductContains("widget");
+        assertThat(ids(orderRepository.filterBy(filter))).containsExactly(3L);
+    }
+
+    @Test
+    public void whenOrdersChange_thenClientSummaryFollowsWithoutScan() {
+        ClientOrderSummary initial = orderRepository.findSummaryByClientId(firstClient.getId());
+        assertThat(initial.orderCount()).isEqualTo(10);
+        assertThat(initial.totalCost()).isEqualByComparingTo("90");
+        assertThat(initial.lastOrderAt()).isEqualTo(lastCreateAt(firstClient));
+
+        Order costUpdate = new Order();
+        costUpdate.setId(19L);
+        costUpdate.setCost(BigDecimal.valueOf(100));
+        orderRepository.update(costUpdate);
+
+        Order move = new Order();
+        move.setId(3L);
+        move.setClient(secondClient);
+        orderRepository.update(move);
+
+        orderRepository.deleteById(19L);
+
+        ClientOrderSummary first = orderRepository.findSummaryByClientId(firstClient.getId());
+        assertThat(first.orderCount()).isEqualTo(8);
+        assertThat(first.totalCost()).isEqualByComparingTo("70");
+        assertThat(first.lastOrderAt()).isEqualTo(lastCreateAt(firstClient));
+
+        ClientOrderSummary second = orderRepository.findSummaryByClientId(secondClient.getId());
+        assertThat(second.orderCount()).isEqualTo(11);
+        assertThat(second.totalCost()).isEqualByComparingTo("102");
+    }
+
+    @Test
+    public void whenLatestOrderMovesToAnotherClient_thenSummaryFallsBackToPreviousOrder() {
+        for (int i = 0; i < 500; i++) {
+            Order order = new Order();
+            order.setProduct("Bulk product");
+            order.setCost(BigDecimal.ONE);
+            order.setClient(firstClient);
+            orderRepository.save(order);
+        }
+        Order latest = orderRepository.findAll().stream().max(Comparator.comparing(Order::getId)).orElseThrow();
+
+        Order move = new Order();
+        move.setId(latest.getId());
+        move.setClient(secondClient);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> orderRepository.update(move));
+
+        ClientOrderSummary first = orderRepository.findSummaryByClientId(firstClient.getId());
+        assertThat(first.orderCount()).isEqualTo(509);
+        assertThat(first.lastOrderAt()).isEqualTo(lastCreateAt(firstClient));
+        assertThat(orderRepository.findSummaryByClientId(secondClient.getId()).orderCount()).isEqualTo(11);
+    }
+
+    @Test
+    public void whenLargeStoreIsScannedInParallel_thenPagesAndAggregatesMatchSequentialScan() {
+        for (int i = 20; i < 10_000; i++) {
+            Order order = new Order();
+            order.setProduct("Test product " + (i % 3));
+            order.setCost(i % 10 == 0 ? null : BigDecimal.valueOf(i % 100));
+            order.setClient(i % 2 == 0 ? firstClient : secondClient);
+            orderRepository.save(order);
+        }
+
+        OrderFilter filter = pageFilter(40, 25);
+        assertThat(ids(orderRepository.filterBy(filter))).containsExactlyElementsOf(
+                LongStream.rangeClosed(1001, 1025).boxed().toList());
+        assertThat(orderRepository.collect(filter, Collectors.counting())).isEqualTo(10_000L);
+
+        filter.setPageNumber(10);
+        filter.setMinCost(BigDecimal.valueOf(50));
+        filter.setMaxCost(BigDecimal.valueOf(59));
+        List<Long> expected = orderRepository.findAll().stream()
+                .filter(order -> order.getCost() != null && order.getCost().intValue() >= 50 && order.getCost().intValue() <= 59)
+                .map(Order::getId)
+                .sorted()
+                .toList();
+        assertThat(ids(orderRepository.filterBy(filter))).containsExactlyElementsOf(expected.subList(250, 275));
+        assertThat(orderRepository.collect(filter, Collectors.counting())).isEqualTo((long) expected.size());
+    }
+
+    private Instant lastCreateAt(Client client) {
+        return orderRepository.findAll().stream()
+                .filter(order -> order.getClient().getId().equals(client.getId()))
+                .map(Order::getCreateAt)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+    }
+
+    protected OrderFilter pageFilter(int pageNumber, int pageSize) {
+        OrderFilter filter = new OrderFilter();
+        filter.setPageNumber(pageNumber);
+        filter.setPageSize(pageSize);
+
+        return filter;
+    }
+
+    protected List<Long> ids(List<Order> orders) {
+        return orders.stream().map(Order::getId).toList();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.rest.repository.impl;
+
+import com.example.rest.model.Client;
+import com.example.rest.model.Order;
+import com.example.rest.repository.journal.FileRepositoryJournal;
+import com.example.rest.repository.journal.JournalRecovery;
+import com.example.rest.web.model.OrderFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ColumnarOrderRepositoryTest extends AbstractOrderRepositoryTest<ColumnarOrderRepository> {
+
+    @Override
+    protected ColumnarOrderRepository open() {
+        ColumnarOrderRepository repository = new ColumnarOrderRepository();
+        repository.setClientRepository(clientRepository);
+        clientRepository.setOrderRepository(repository);
+
+        return repository;
+    }
+
+    @Test
+    public void whenFilterByCostRange_thenScaledBoundsMatchDecimalComparison() {
+        for (String cost : new String[]{"0.44", "0.45", "0.7", "1.000", "1.001", null}) {
+            Order order = new Order();
+            order.setProduct("Scaled product");
+            order.setCost(cost == null ? null : new BigDecimal(cost));
+            order.setClient(firstClient);
+            orderRepository.save(order);
+        }
+
+        OrderFilter filter = pageFilter(0, 20);
+        filter.setMinCost(new BigDecimal("0.45"));
+        filter.setMaxCost(BigDecimal.ONE);
+        filter.setProductName("Scaled product");
+
+        List<Order> orders = orderRepository.filterBy(filter);
+
+        assertThat(ids(orders)).containsExactly(22L, 23L, 24L);
+        assertThat(orders.get(2).getCost()).isEqualTo(new BigDecimal("1.000"));
+    }
+
+    @Test
+    public void whenRestartedWithJournal_thenOrdersAreRestored(@TempDir Path directory) {
+        FileRepositoryJournal journal = new FileRepositoryJournal(directory, Duration.ofMillis(1), 1 << 16, true);
+        ColumnarOrderRepository journaled = restart(journal);
+        Client client = clientRepository.save(new Client(null, "Client", new ArrayList<>(), null));
+        for (int i = 0; i < 3; i++) {
+            Order order = new Order();
+            order.setProduct("Journaled product " + i);
+            order.setCost(BigDecimal.valueOf(i, 2));
+            order.setClient(client);
+            journaled.save(order);
+        }
+        Order update = new Order();
+        update.setId(2L);
+        update.setProduct("Renamed");
+        journaled.update(update, 0);
+        journaled.deleteById(1L);
+        journaled.deleteById(3L);
+        List<Order> expected = journaled.findAll();
+        journal.stop();
+
+        journal = new FileRepositoryJournal(directory, Duration.ofMillis(1), 1 << 16, true);
+        ColumnarOrderRepository restored = restart(journal);
+
+        assertThat(restored.findAll()).usingRecursiveFieldByFieldElementComparatorIgnoringFields("client")
+                .containsExactlyElementsOf(expected);
+        assertThat(restored.findSummaryByClientId(client.getId())).isEqualTo(journaled.findSummaryByClientId(client.getId()));
+
+        Order order = new Order();
+        order.setProduct("After restart");
+        order.setClient(client);
+        assertThat(restored.save(order).getId()).isEqualTo(4L);
+        journal.stop();
+    }
+
+    private ColumnarOrderRepository restart(FileRepositoryJournal journal) {
+        clientRepository = new InMemoryClientRepository();
+        ColumnarOrderRepository repository = open();
+        repository.setJournal(journal);
+        clientRepository.setJournal(journal);
+
+        new JournalRecovery(journal, clientRepository, Optional.of(repository)).afterSingletonsInstantiated();
+        journal.start();
+
+        return repository;
+    }
+}
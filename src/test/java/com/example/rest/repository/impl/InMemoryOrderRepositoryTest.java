@@ -0,0 +1,13 @@
+package com.example.rest.repository.impl;
+
+public class InMemoryOrderRepositoryTest extends AbstractOrderRepositoryTest<InMemoryOrderRepository> {
+
+    @Override
+    protected InMemoryOrderRepository open() {
+        InMemoryOrderRepository repository = new InMemoryOrderRepository();
+        clientRepository.setOrderRepository(repository);
+        repository.setClientRepository(clientRepository);
+
+        return repository;
+    }
+}
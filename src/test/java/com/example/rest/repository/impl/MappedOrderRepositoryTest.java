@@ -0,0 +1,83 @@
+package com.example.rest.repository.impl;
+
+import com.example.rest.model.Order;
+import com.example.rest.web.model.OrderFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedOrderRepositoryTest extends AbstractOrderRepositoryTest<MappedOrderRepository> {
+
+    @TempDir
+    Path directory;
+
+    @Override
+    protected MappedOrderRepository open() throws IOException {
+        MappedOrderRepository repository = new MappedOrderRepository(directory, true);
+        repository.setClientRepository(clientRepository);
+        clientRepository.setOrderRepository(repository);
+
+        return repository;
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        orderRepository.close();
+    }
+
+    @Test
+    public void whenReopened_thenOrdersAndSummariesAreRestoredFromFile() throws IOException {
+        Order update = new Order();
+        update.setId(2L);
+        update.setProduct("Renamed");
+        orderRepository.update(update, 0);
+        orderRepository.deleteById(4L);
+        Order expected = orderRepository.findById(2L).orElseThrow();
+
+        orderRepository.close();
+        orderRepository = open();
+
+        Order reopened = orderRepository.findById(2L).orElseThrow();
+        assertThat(reopened.getProduct()).isEqualTo("Renamed");
+        assertThat(reopened.getVersion()).isEqualTo(1L);
+        assertThat(reopened.getCreateAt()).isEqualTo(expected.getCreateAt());
+        assertThat(reopened.getUpdateAt()).isEqualTo(expected.getUpdateAt());
+        assertThat(orderRepository.findById(4L)).isEmpty();
+        assertThat(orderRepository.findAll()).hasSize(19);
+        assertThat(orderRepository.findSummaryByClientId(secondClient.getId()).orderCount()).isEqualTo(9L);
+        assertThat(orderRepository.findSummaryByClientId(secondClient.getId()).totalCost())
+                .isEqualByComparingTo(new BigDecimal("97"));
+    }
+
+    @Test
+    public void whenReopenedAfterCrash_thenTornRecordsAndUnknownProductsAreRepaired() throws IOException {
+        orderRepository.close();
+        try (FileChannel file = FileChannel.open(directory.resolve("orders.dat"), StandardOpenOption.WRITE)) {
+            // заказ 2 остался с нечётным счётчиком, у заказа 5 номер товара, которого нет в словаре
+            file.write(ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, 3), 64 + 64);
+            file.write(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 99), 64 + 4 * 64 + 12);
+        }
+
+        orderRepository = open();
+
+        assertThat(orderRepository.findById(2L)).isEmpty();
+        assertThat(orderRepository.findById(5L)).get().extracting(Order::getProduct).isNull();
+        assertThat(orderRepository.findAll()).hasSize(19);
+        OrderFilter filter = pageFilter(0, 20);
+        filter.setProductContains("product");
+        assertThat(orderRepository.filterBy(filter)).hasSize(18);
+        assertThat(orderRepository.findSummaryByClientId(secondClient.getId()).orderCount()).isEqualTo(9L);
+        assertThat(orderRepository.findSummaryByClientId(secondClient.getId()).totalCost())
+                .isEqualByComparingTo(new BigDecimal("99"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.rest.repository.impl;
+
+import com.example.rest.web.model.OrderFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderIndexTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    private OrderIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new OrderIndex();
+
+        // клиент 1 - почти все заказы, клиент 2 - один; стоимость и время создания растут с id
+        for (long id = 1; id <= 100; id++) {
+            Instant createAt = START.plusSeconds(id);
+            index.add(new OrderIndex.Values(id, id == 100 ? 2L : 1L, "Product " + id % 5,
+                    BigDecimal.valueOf(id), createAt, createAt));
+        }
+    }
+
+    @Test
+    public void whenCostRangeIsNarrowerThanClient_thenCandidatesComeFromCostRange() {
+        OrderFilter filter = new OrderFilter();
+        filter.setClientId(1L);
+        filter.setMinCost(BigDecimal.valueOf(10));
+        filter.setMaxCost(BigDecimal.valueOf(12));
+
+        assertThat(index.find(filter).orElseThrow().toList()).containsExactly(10L, 11L, 12L);
+    }
+
+    @Test
+    public void whenClientIsNarrowerThanCostRange_thenCandidatesComeFromClient() {
+        OrderFilter filter = new OrderFilter();
+        filter.setClientId(2L);
+        filter.setMinCost(BigDecimal.ONE);
+        filter.setMaxCost(BigDecimal.valueOf(100));
+
+        assertThat(index.find(filter).orElseThrow().toList()).containsExactly(100L);
+    }
+
+    @Test
+    public void whenSeveralRanges_thenShortestRangeIsUsed() {
+        OrderFilter filter = new OrderFilter();
+        filter.setMinCost(BigDecimal.ONE);
+        filter.setMaxCost(BigDecimal.valueOf(90));
+        filter.setCreatedBefore(START.plusSeconds(3));
+        filter.setUpdatedBefore(START.plusSeconds(50));
+
+        assertThat(index.find(filter).orElseThrow().toList()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void whenProductIsNarrowerThanClient_thenCandidatesComeFromProduct() {
+        OrderFilter filter = new OrderFilter();
+        filter.setClientId(1L);
+        filter.setProductName("Product 1");
+
+        assertThat(index.find(filter).orElseThrow().toList()).hasSize(20);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.rest.repository.journal;
+
+import com.example.rest.model.Client;
+import com.example.rest.repository.impl.InMemoryClientRepository;
+import com.example.rest.repository.journal.JournalRecord.ClientDelete;
+import com.example.rest.repository.journal.JournalRecord.ClientPut;
+import com.example.rest.repository.journal.JournalRecord.OrderPut;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FileRepositoryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void whenRecordsAreDurable_thenTheyAreReplayedInOrder() throws IOException {
+        OrderPut order = new OrderPut(7, 1L, "Product", new BigDecimal("12.50"),
+                Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-01-02T00:00:00Z"), 3L);
+
+        FileRepositoryJournal journal = open();
+        journal.awaitDurable(journal.append(new ClientPut(1, "Client", 0L)));
+        journal.awaitDurable(journal.append(order));
+        journal.awaitDurable(journal.append(new ClientDelete(2)));
+        journal.stop();
+
+        assertThat(replay()).containsExactly(new ClientPut(1, "Client", 0L), order, new ClientDelete(2));
+    }
+
+    @Test
+    public void whenTailIsTorn_thenItIsTruncatedAndAppendingContinues() throws IOException {
+        FileRepositoryJournal journal = open();
+        journal.awaitDurable(journal.append(new ClientPut(1, "Client", 0L)));
+        journal.stop();
+
+        Path segment;
+        try (var files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("journal-")).findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 0, 0, 20, 1, 2}, StandardOpenOption.APPEND);
+
+        journal = open();
+        journal.awaitDurable(journal.append(new ClientPut(2, "Other", 0L)));
+        journal.stop();
+
+        assertThat(replay()).containsExactly(new ClientPut(1, "Client", 0L), new ClientPut(2, "Other", 0L));
+    }
+
+    @Test
+    public void whenCompacted_thenSnapshotAndNewSegmentAreReplayed() throws IOException {
+        FileRepositoryJournal journal = open();
+        for (int i = 0; i < 100; i++) {
+            journal.append(new ClientPut(1, "Client " + i, (long) i));
+        }
+        journal.compact(sink -> sink.accept(new ClientPut(1, "Client 99", 99L)));
+        journal.awaitDurable(journal.append(new ClientPut(2, "Other", 0L)));
+        journal.stop();
+
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .containsExactlyInAnyOrder("journal-0000000000000002.log", "snapshot-0000000000000002.bin");
+        }
+        assertThat(replay()).containsExactly(new ClientPut(1, "Client 99", 99L), new ClientPut(2, "Other", 0L));
+    }
+
+    @Test
+    public void whenCompactedDuringSave_thenSavedClientSurvivesInSnapshot() throws Exception {
+        FileRepositoryJournal journal = open();
+        InMemoryClientRepository clientRepository = new InMemoryClientRepository();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        clientRepository.setJournal(new RepositoryJournal() {
+
+            @Override
+            public long append(JournalRecord record) {
+                long sequence = journal.append(record);
+                Future<?> compaction = executor.submit(() -> {
+                    journal.compact(sink -> clientRepository.findAll().forEach(client -> sink.accept(ClientPut.of(client))));
+                    return null;
+                });
+                try {
+                    compaction.get(200, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ex) {
+                    // уплотнение ждёт, пока сохранение отпустит сегмент
+                } catch (InterruptedException | ExecutionException ex) {
+                    throw new IllegalStateException(ex);
+                }
+
+                return sequence;
+            }
+
+            @Override
+            public void awaitDurable(long sequence) {
+                journal.awaitDurable(sequence);
+            }
+        });
+
+        clientRepository.save(new Client(null, "Client", new ArrayList<>(), null));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        journal.stop();
+
+        assertThat(replay()).containsExactly(new ClientPut(1, "Client", 0L));
+    }
+
+    @Test
+    public void whenWriteFails_thenFurtherChangesAreRejectedAndNotApplied() throws IOException {
+        FileRepositoryJournal journal = open();
+        InMemoryClientRepository clientRepository = new InMemoryClientRepository();
+        clientRepository.setJournal(journal);
+        Client client = clientRepository.save(new Client(null, "Client", new ArrayList<>(), null));
+        ((FileChannel) ReflectionTestUtils.getField(journal, "channel")).close();
+
+        assertThatThrownBy(() -> clientRepository.save(new Client(null, "Unsynced", new ArrayList<>(), null)))
+                .isInstanceOf(UncheckedIOException.class);
+        int clients = clientRepository.findAll().size();
+
+        assertThatThrownBy(() -> clientRepository.update(new Client(client.getId(), "Renamed", null, null)))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> clientRepository.save(new Client(null, "Rejected", new ArrayList<>(), null)))
+                .isInstanceOf(UncheckedIOException.class);
+        journal.stop();
+
+        Client current = clientRepository.findById(client.getId()).orElseThrow();
+        assertThat(current.getName()).isEqualTo("Client");
+        assertThat(current.getVersion()).isEqualTo(0L);
+        assertThat(clientRepository.findAll()).hasSize(clients);
+    }
+
+    private FileRepositoryJournal open() throws IOException {
+        return open(new ArrayList<>());
+    }
+
+    private FileRepositoryJournal open(List<JournalRecord> records) throws IOException {
+        FileRepositoryJournal journal = new FileRepositoryJournal(directory, Duration.ofMillis(1), 1 << 16, true);
+        journal.recover(records::add);
+        journal.start();
+
+        return journal;
+    }
+
+    private List<JournalRecord> replay() throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        open(records).stop();
+
+        return records;
+    }
+}
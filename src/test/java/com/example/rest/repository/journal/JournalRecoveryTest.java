@@ -0,0 +1,77 @@
+package com.example.rest.repository.journal;
+
+import com.example.rest.model.Client;
+import com.example.rest.model.Order;
+import com.example.rest.repository.impl.InMemoryClientRepository;
+import com.example.rest.repository.impl.InMemoryOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JournalRecoveryTest {
+
+    @TempDir
+    Path directory;
+
+    private FileRepositoryJournal journal;
+
+    private InMemoryClientRepository clientRepository;
+
+    private InMemoryOrderRepository orderRepository;
+
+    private JournalRecovery recovery;
+
+    @Test
+    public void whenHighestIdsDeletedAndCompacted_thenIdsAreNotReusedAfterRestart() {
+        start();
+        Client client = clientRepository.save(new Client(null, "Client", new ArrayList<>(), null));
+        Client deletedClient = clientRepository.save(new Client(null, "Deleted client", new ArrayList<>(), null));
+        saveOrder(client);
+        Order deletedOrder = saveOrder(client);
+        orderRepository.deleteById(deletedOrder.getId());
+        clientRepository.deleteById(deletedClient.getId());
+        recovery.compactIfNeeded();
+        journal.stop();
+
+        start();
+
+        assertThat(clientRepository.findAll()).extracting(Client::getId).containsExactly(client.getId());
+        assertThat(orderRepository.findAll()).hasSize(1);
+        assertThat(clientRepository.save(new Client(null, "New client", new ArrayList<>(), null)).getId())
+                .isEqualTo(deletedClient.getId() + 1);
+        assertThat(saveOrder(client).getId()).isEqualTo(deletedOrder.getId() + 1);
+    }
+
+    private void start() {
+        journal = new FileRepositoryJournal(directory, Duration.ofMillis(1), 1 << 16, true);
+        clientRepository = new InMemoryClientRepository();
+        orderRepository = new InMemoryOrderRepository();
+        clientRepository.setOrderRepository(orderRepository);
+        clientRepository.setJournal(journal);
+        orderRepository.setClientRepository(clientRepository);
+        orderRepository.setJournal(journal);
+
+        recovery = new JournalRecovery(journal, clientRepository, Optional.of(orderRepository));
+        ReflectionTestUtils.setField(recovery, "compactionMinSize", DataSize.ofBytes(0));
+        recovery.afterSingletonsInstantiated();
+        journal.start();
+    }
+
+    private Order saveOrder(Client client) {
+        Order order = new Order();
+        order.setProduct("Product");
+        order.setCost(BigDecimal.ONE);
+        order.setClient(client);
+
+        return orderRepository.save(order);
+    }
+}
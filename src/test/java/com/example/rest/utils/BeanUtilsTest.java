@@ -0,0 +1,57 @@
+package com.example.rest.utils;
+
+import com.example.rest.model.Client;
+import com.example.rest.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BeanUtilsTest {
+
+    @Test
+    public void whenCopy_thenOnlyNonNullPropertiesAreCopied() {
+        Instant createAt = Instant.now();
+        Order destination = new Order(1L, "Old product", BigDecimal.ONE, null, createAt, createAt, 3L);
+        Order source = new Order();
+        source.setProduct("New product");
+
+        BeanUtils.copyNonNullProperties(source, destination);
+
+        assertThat(destination.getProduct()).isEqualTo("New product");
+        assertThat(destination.getCost()).isEqualTo(BigDecimal.ONE);
+        assertThat(destination.getCreateAt()).isEqualTo(createAt);
+    }
+
+    @Test
+    public void whenCopy_thenIdAndVersionAreKept() {
+        Order destination = new Order(1L, "Old product", BigDecimal.ONE, null, null, null, 3L);
+        Order source = new Order(2L, "New product", BigDecimal.TEN, null, null, null, 7L);
+
+        BeanUtils.copyNonNullProperties(source, destination);
+
+        assertThat(destination.getId()).isEqualTo(1L);
+        assertThat(destination.getVersion()).isEqualTo(3L);
+        assertThat(destination.getCost()).isEqualTo(BigDecimal.TEN);
+    }
+
+    @Test
+    public void whenCopyEmptyCollection_thenDestinationCollectionIsKept() {
+        Order order = new Order();
+        Client destination = new Client(1L, "Client 1", new ArrayList<>(List.of(order)), 0L);
+
+        BeanUtils.copyNonNullProperties(new Client(null, "Client 2", new ArrayList<>(), null), destination);
+
+        assertThat(destination.getName()).isEqualTo("Client 2");
+        assertThat(destination.getOrders()).containsExactly(order);
+
+        Order newOrder = new Order();
+        BeanUtils.copyNonNullProperties(new Client(null, null, new ArrayList<>(List.of(newOrder)), null), destination);
+
+        assertThat(destination.getOrders()).containsExactly(newOrder);
+    }
+}
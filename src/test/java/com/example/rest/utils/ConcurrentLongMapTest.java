@@ -0,0 +1,109 @@
+package com.example.rest.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class ConcurrentLongMapTest {
+
+    @Test
+    public void whenRandomOperations_thenBehaveLikeHashMap() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>(4, 16);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(2_000);
+            switch (random.nextInt(3)) {
+                case 0 -> assertThat(map.put(key, (long) i)).isEqualTo(expected.put(key, (long) i));
+                case 1 -> assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+                default -> assertThat(map.get(key)).isEqualTo(expected.get(key));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        assertThat(map.values()).containsExactlyInAnyOrderElementsOf(expected.values());
+    }
+
+    @Test
+    public void whenComputeThrows_thenMapIsUnchanged() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        map.put(1L, "value");
+
+        assertThatThrownBy(() -> map.compute(1L, (key, current) -> {
+            throw new IllegalStateException();
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(map.get(1L)).isEqualTo("value");
+        assertThat(map.compute(1L, (key, current) -> null)).isNull();
+        assertThat(map.containsKey(1L)).isFalse();
+    }
+
+    @Test
+    public void whenRemappingAccessesSameSegment_thenFailInsteadOfHanging() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        map.put(1L, "value");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThatThrownBy(() -> map.compute(1L, (key, current) -> map.get(1L)))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> map.compute(1L, (key, current) -> map.put(1L, "other")))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> map.compute(1L, (key, current) -> map.values().get(0)))
+                    .isInstanceOf(IllegalStateException.class);
+        });
+
+        assertThat(map.values()).containsExactly("value");
+        assertThat(map.put(1L, "other")).isEqualTo("value");
+    }
+
+    @Test
+    public void whenConcurrentWriters_thenNoUpdatesAreLost() throws Exception {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+            long offset = thread;
+            futures.add(executor.submit(() -> {
+                for (long i = 0; i < 50_000; i++) {
+                    long key = i * 8 + offset;
+                    map.put(key, key);
+                    assertThat(map.get(key)).isEqualTo(key);
+                    if (i % 2 == 0) {
+                        map.remove(key);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(map.size()).isEqualTo(8 * 25_000);
+    }
+
+    @Test
+    public void whenParallelStream_thenEveryValueIsVisitedOnce() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>(16, 16);
+        for (long key = 0; key < 100_000; key++) {
+            map.put(key, key);
+        }
+
+        assertThat(map.parallelStream().mapToLong(Long::longValue).sum()).isEqualTo(99_999L * 100_000 / 2);
+        assertThat(map.parallelStream().distinct().count()).isEqualTo(100_000);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.rest.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MpscRingBufferTest {
+
+    @Test
+    public void whenFull_thenOfferIsRejected() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+
+        assertThat(buffer.poll()).isEqualTo(0);
+        assertThat(buffer.offer(4)).isTrue();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    public void whenConcurrentProducers_thenEveryAcceptedElementIsConsumedOnce() throws Exception {
+        MpscRingBuffer<Long> buffer = new MpscRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 50_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<Integer>> accepted = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long base = (long) p * perProducer;
+                accepted.add(executor.submit(() -> {
+                    int count = 0;
+                    for (int i = 0; i < perProducer; i++) {
+                        if (buffer.offer(base + i)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+
+            Set<Long> consumed = new HashSet<>();
+            int expected = -1;
+            while (expected < 0 || consumed.size() < expected) {
+                Long element = buffer.poll();
+                if (element != null) {
+                    assertThat(consumed.add(element)).isTrue();
+                } else if (expected < 0 && accepted.stream().allMatch(Future::isDone)) {
+                    expected = 0;
+                    for (Future<Integer> future : accepted) {
+                        expected += future.get();
+                    }
+                }
+            }
+
+            assertThat(buffer.poll()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.rest.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void whenBurstIsExhausted_thenRetryAfterEmissionInterval() {
+        RateLimiter rateLimiter = new RateLimiter(10, 3);
+        long now = 1_000 * SECOND;
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire(now)).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire(now)).isEqualTo(SECOND / 10);
+
+        assertThat(rateLimiter.tryAcquire(now + SECOND / 10)).isZero();
+        assertThat(rateLimiter.tryAcquire(now + SECOND / 10)).isPositive();
+    }
+
+    @Test
+    public void whenIdle_thenBurstIsRestoredButNotExceeded() {
+        RateLimiter rateLimiter = new RateLimiter(10, 2);
+        long now = -5 * SECOND;
+
+        assertThat(rateLimiter.tryAcquire(now)).isZero();
+        assertThat(rateLimiter.tryAcquire(now)).isZero();
+
+        long later = now + 10 * SECOND;
+        assertThat(rateLimiter.tryAcquire(later)).isZero();
+        assertThat(rateLimiter.tryAcquire(later)).isZero();
+        assertThat(rateLimiter.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    public void whenManyThreadsCompete_thenOnlyBurstIsGranted() throws Exception {
+        RateLimiter rateLimiter = new RateLimiter(1, 100);
+        long now = System.nanoTime();
+        AtomicInteger granted = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1_000; i++) {
+                executor.execute(() -> {
+                    if (rateLimiter.tryAcquire(now) == 0) {
+                        granted.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertThat(granted.get()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.rest.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UlidGeneratorTest {
+
+    @Test
+    public void whenGenerate_thenIdsAreUlidsInStrictOrder() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UlidGenerator.next());
+        }
+
+        assertThat(ids).allMatch(id -> id.matches("[0-9A-HJKMNP-TV-Z]{26}"));
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void whenGenerate_thenTimePartEncodesCurrentMillis() {
+        long before = System.currentTimeMillis();
+        String id = UlidGenerator.next();
+        long after = System.currentTimeMillis();
+
+        long time = 0;
+        for (char c : id.substring(0, 10).toCharArray()) {
+            time = time * 32 + "0123456789ABCDEFGHJKMNPQRSTVWXYZ".indexOf(c);
+        }
+
+        assertThat(time).isBetween(before, after + 1);
+    }
+}
@@ -30,7 +30,8 @@ public abstract class AbstractTestController {
         Client client = new Client(
                 id,
                 "Client " + id,
-                new ArrayList<>()
+                new ArrayList<>(),
+                null
         );
         if (order != null) {
             order.setClient(client);
@@ -41,7 +42,7 @@ public abstract class AbstractTestController {
     }
 
     protected Order createOrder(Long id, Long cost, Client client) {
-        return new Order(id, "Test product " + id, BigDecimal.valueOf(cost), client, Instant.now(), Instant.now());
+        return new Order(id, "Test product " + id, BigDecimal.valueOf(cost), client, Instant.now(), Instant.now(), null);
     }
 
     protected ClientResponse createClientResponse(Long id, OrderResponse orderResponse){
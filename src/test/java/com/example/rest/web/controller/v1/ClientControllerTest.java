@@ -129,7 +129,7 @@ public class ClientControllerTest extends AbstractTestController {
     @Test
     public void whenUpdateClient_thenReturnUpdatedClient() throws Exception {
         UpsertClientRequest upsertClientRequest = new UpsertClientRequest("New Client 1");
-        Client updatedClient = new Client(1L, "New Client 1", new ArrayList<>());
+        Client updatedClient = new Client(1L, "New Client 1", new ArrayList<>(), null);
         ClientResponse clientResponse = new ClientResponse(1L, "New Client 1", new ArrayList<>());
 
         Mockito.when(clientService.update(updatedClient)).thenReturn(updatedClient);
@@ -219,6 +219,52 @@ public class ClientControllerTest extends AbstractTestController {
 
     }
 
+    @Test
+    public void whenSearchByPrefix_thenReturnMatchingClients() throws Exception {
+        List<Client> clients = List.of(createdClient(1L, null));
+        ClientListResponse clientListResponse = new ClientListResponse(List.of(createClientResponse(1L, null)));
+
+        Mockito.when(clientService.searchByName("cli", TextMatch.PREFIX, 20)).thenReturn(clients);
+        Mockito.when(clientMapper.clientListToClientResponse(clients)).thenReturn(clientListResponse);
+
+        String actualResponse = mockMvc.perform(get("/api/v1/client/search")
+                        .param("name", "cli")
+                        .param("match", "PREFIX"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonAssertions.assertThatJson(actualResponse).isEqualTo(objectMapper.writeValueAsString(clientListResponse));
+    }
+
+    @Test
+    public void whenSearchWithoutMatch_thenSearchBySubstring() throws Exception {
+        mockMvc.perform(get("/api/v1/client/search").param("name", "lie"))
+                .andExpect(status().isOk());
+
+        Mockito.verify(clientService, Mockito.times(1)).searchByName("lie", TextMatch.CONTAINS, 20);
+    }
+
+    @Test
+    public void whenSearchWithBlankName_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/client/search").param("name", " "))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(clientService);
+    }
+
+    @Test
+    public void whenSearchWithOutOfRangeLimit_thenLimitIsClamped() throws Exception {
+        mockMvc.perform(get("/api/v1/client/search").param("name", "cli").param("limit", "0"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/client/search").param("name", "cli").param("limit", "1000"))
+                .andExpect(status().isOk());
+
+        Mockito.verify(clientService, Mockito.times(1)).searchByName("cli", TextMatch.CONTAINS, 1);
+        Mockito.verify(clientService, Mockito.times(1)).searchByName("cli", TextMatch.CONTAINS, 100);
+    }
+
     @Test
     public void whenCreateOrder_returnNewOrder()throws Exception {
         Client client = createdClient(1L, null);
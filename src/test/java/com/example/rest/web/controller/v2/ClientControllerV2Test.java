@@ -0,0 +1,211 @@
+package com.example.rest.web.controller.v2;
+
+import com.example.rest.model.Client;
+import com.example.rest.model.Order;
+import com.example.rest.repository.DataBaseClientRepository;
+import com.example.rest.repository.DatabaseOrderRepository;
+import com.example.rest.web.AbstractTestController;
+import com.example.rest.web.model.ClientListResponse;
+import com.example.rest.web.model.ClientResponse;
+import com.example.rest.web.model.CreateClientWithOrderRequest;
+import com.example.rest.web.model.OrderRequest;
+import com.example.rest.web.model.OrderResponse;
+import com.example.rest.web.model.UpsertClientRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ClientControllerV2Test extends AbstractTestController {
+
+    @Autowired
+    private DataBaseClientRepository clientRepository;
+
+    @Autowired
+    private DatabaseOrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    public void cleanUp() {
+        orderRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void whenFindPage_thenClientsComeWithOrdersInTwoQueries() throws Exception {
+        List<Client> clients = createClientsWithOrders(3, 2);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ClientListResponse response = perform(get("/api/v2/client/page")
+                .param("pageNumber", "0")
+                .param("pageSize", "2"));
+
+        assertThat(response.getClients()).extracting(ClientResponse::getId)
+                .containsExactly(clients.get(0).getId(), clients.get(1).getId());
+        assertThat(response.getClients()).allSatisfy(client -> assertThat(client.getOrders()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenFindPageWithOutOfRangeParameters_thenTheyAreClamped() throws Exception {
+        List<Client> clients = createClientsWithOrders(3, 1);
+
+        ClientListResponse firstPage = perform(get("/api/v2/client/page")
+                .param("pageNumber", "-1")
+                .param("pageSize", "0"));
+        ClientListResponse largePage = perform(get("/api/v2/client/page")
+                .param("pageNumber", "0")
+                .param("pageSize", "1000"));
+
+        assertThat(firstPage.getClients()).extracting(ClientResponse::getId).containsExactly(clients.get(0).getId());
+        assertThat(largePage.getClients()).hasSize(3);
+    }
+
+    @Test
+    public void whenCreateAndUpdateClient_thenETagMatchesGet() throws Exception {
+        var created = mockMvc.perform(post("/api/v2/client")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpsertClientRequest("Client 1"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        Long clientId = objectMapper.readValue(created.getContentAsString(), ClientResponse.class).getId();
+
+        mockMvc.perform(get("/api/v2/client/{id}", clientId)
+                        .header(HttpHeaders.IF_NONE_MATCH, created.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+
+        String updatedETag = mockMvc.perform(put("/api/v2/client/{id}", clientId)
+                        .header(HttpHeaders.IF_MATCH, created.getHeader(HttpHeaders.ETAG))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpsertClientRequest("Client 2"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(updatedETag).isNotEqualTo(created.getHeader(HttpHeaders.ETAG));
+        mockMvc.perform(get("/api/v2/client/{id}", clientId)
+                        .header(HttpHeaders.IF_NONE_MATCH, updatedETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void whenDeleteClient_thenItsOrdersAreDeletedToo() throws Exception {
+        List<Client> clients = createClientsWithOrders(2, 2);
+
+        mockMvc.perform(delete("/api/v2/client/{id}", clients.get(0).getId()))
+                .andExpect(status().isNoContent());
+
+        assertThat(clientRepository.findAll()).extracting(Client::getId).containsExactly(clients.get(1).getId());
+        assertThat(orderRepository.findAll()).hasSize(2)
+                .allSatisfy(order -> assertThat(order.getClient().getId()).isEqualTo(clients.get(1).getId()));
+    }
+
+    @Test
+    public void whenCreateWithOrders_thenClientAndOrdersAreInsertedInBatch() throws Exception {
+        List<OrderRequest> orders = IntStream.rangeClosed(1, 20)
+                .mapToObj(i -> new OrderRequest("Test product " + i, BigDecimal.valueOf(i * 10L)))
+                .toList();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ClientResponse response = objectMapper.readValue(mockMvc.perform(post("/api/v2/client/save-with-orders")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new CreateClientWithOrderRequest("Client 1", orders))))
+                        .andExpect(status().isCreated())
+                        .andReturn().getResponse().getContentAsString(),
+                ClientResponse.class);
+
+        assertThat(response.getOrders()).hasSize(20);
+        assertThat(clientRepository.findAll()).extracting(Client::getId).containsExactly(response.getId());
+        assertThat(orderRepository.findAll())
+                .allSatisfy(order -> assertThat(order.getClient().getId()).isEqualTo(response.getId()))
+                .extracting(Order::getId)
+                .containsExactlyInAnyOrderElementsOf(response.getOrders().stream().map(OrderResponse::getId).toList());
+
+        // INSERT клиента и один пакет INSERT заказов, остальное - выборки из последовательностей id
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(21);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    public void whenSearchByPrefixOrSubstring_thenMatchIgnoringCase() throws Exception {
+        Client alice = clientRepository.save(Client.builder().name("Alice").build());
+        Client alina = clientRepository.save(Client.builder().name("Alina").build());
+        Client malik = clientRepository.save(Client.builder().name("Malik").build());
+        clientRepository.save(Client.builder().name("Bob").build());
+
+        ClientListResponse byPrefix = perform(get("/api/v2/client/search")
+                .param("name", "ALI")
+                .param("match", "PREFIX"));
+        ClientListResponse bySubstring = perform(get("/api/v2/client/search")
+                .param("name", "li"));
+
+        assertThat(byPrefix.getClients()).extracting(ClientResponse::getId)
+                .containsExactly(alice.getId(), alina.getId());
+        assertThat(bySubstring.getClients()).extracting(ClientResponse::getId)
+                .containsExactly(alice.getId(), alina.getId(), malik.getId());
+    }
+
+    @Test
+    public void whenSearchWithBlankName_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v2/client/search").param("name", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void whenSearchWithOutOfRangeLimit_thenLimitIsClamped() throws Exception {
+        createClientsWithOrders(3, 0);
+
+        ClientListResponse smallest = perform(get("/api/v2/client/search")
+                .param("name", "Client")
+                .param("limit", "0"));
+        ClientListResponse largest = perform(get("/api/v2/client/search")
+                .param("name", "Client")
+                .param("limit", "1000"));
+
+        assertThat(smallest.getClients()).hasSize(1);
+        assertThat(largest.getClients()).hasSize(3);
+    }
+
+    private ClientListResponse perform(RequestBuilder request) throws Exception {
+        return objectMapper.readValue(mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString(),
+                ClientListResponse.class);
+    }
+
+    private List<Client> createClientsWithOrders(int clients, int ordersPerClient) {
+        return IntStream.rangeClosed(1, clients)
+                .mapToObj(i -> {
+                    Client client = clientRepository.save(Client.builder().name("Client " + i).build());
+                    IntStream.rangeClosed(1, ordersPerClient).forEach(j -> orderRepository.save(Order.builder()
+                            .product("Test product " + j)
+                            .cost(BigDecimal.valueOf(j * 100L))
+                            .client(client)
+                            .build()));
+
+                    return client;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.rest.web.controller.v2;
+
+import com.example.rest.model.Client;
+import com.example.rest.model.Order;
+import com.example.rest.model.OrderStats;
+import com.example.rest.repository.DataBaseClientRepository;
+import com.example.rest.repository.DatabaseOrderRepository;
+import com.example.rest.web.AbstractTestController;
+import com.example.rest.web.model.OrderCursor;
+import com.example.rest.web.model.OrderListResponse;
+import com.example.rest.web.model.OrderResponse;
+import com.example.rest.web.model.OrderStatsGroupBy;
+import com.example.rest.web.model.OrderStatsResponse;
+import com.example.rest.web.model.UpsertOrderRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class OrderControllerV2Test extends AbstractTestController {
+
+    @Autowired
+    private DataBaseClientRepository clientRepository;
+
+    @Autowired
+    private DatabaseOrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    public void cleanUp() {
+        orderRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void whenUpdateOrder_thenOneSelectAndOneUpdate() throws Exception {
+        Order order = createPersistedOrder();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UpsertOrderRequest request = new UpsertOrderRequest(order.getClient().getId(), "Updated product", BigDecimal.valueOf(200));
+        mockMvc.perform(put("/api/v2/order/{id}", order.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getProduct()).isEqualTo("Updated product");
+    }
+
+    @Test
+    public void whenUpdateOrderWithCurrentVersion_thenSingleConditionalUpdate() throws Exception {
+        Order order = createPersistedOrder();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UpsertOrderRequest request = new UpsertOrderRequest(order.getClient().getId(), "Updated product", BigDecimal.valueOf(200));
+        mockMvc.perform(put("/api/v2/order/{id}", order.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"" + order.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (order.getVersion() + 1) + "\""));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getVersion()).isEqualTo(order.getVersion() + 1);
+    }
+
+    @Test
+    public void whenUpdateOrderWithStaleVersion_thenReturnPreconditionFailed() throws Exception {
+        Order order = createPersistedOrder();
+
+        UpsertOrderRequest request = new UpsertOrderRequest(order.getClient().getId(), "Updated product", BigDecimal.valueOf(200));
+        mockMvc.perform(put("/api/v2/order/{id}", order.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"" + (order.getVersion() + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getProduct()).isEqualTo("Test product 1");
+    }
+
+    @Test
+    public void whenGetOrderWithCurrentETag_thenNotModifiedWithoutLoadingEntity() throws Exception {
+        Order order = createPersistedOrder();
+        String eTag = "\"" + order.getVersion() + "\"";
+
+        mockMvc.perform(get("/api/v2/order/{id}", order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v2/order/{id}", order.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void whenOrderListChanges_thenETagChanges() throws Exception {
+        Order order = createPersistedOrder();
+
+        String eTag = mockMvc.perform(get("/api/v2/order"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v2/order").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        orderRepository.save(Order.builder()
+                .product("Test product 2")
+                .cost(BigDecimal.valueOf(100))
+                .client(order.getClient())
+                .build());
+
+        mockMvc.perform(get("/api/v2/order").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void whenStatsByProduct_thenCostIsAggregatedPerProduct() throws Exception {
+        Order order = createPersistedOrder();
+        saveOrder(order.getClient(), "Test product 1", 300);
+        saveOrder(order.getClient(), "Test product 2", 50);
+
+        OrderStatsResponse response = objectMapper.readValue(mockMvc.perform(get("/api/v2/order/stats")
+                                .param("groupBy", OrderStatsGroupBy.PRODUCT.name()))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString(),
+                OrderStatsResponse.class);
+
+        assertThat(response.getStats()).extracting(OrderStats::key).containsExactly("Test product 1", "Test product 2");
+        OrderStats first = response.getStats().get(0);
+        assertThat(first.count()).isEqualTo(2);
+        assertThat(first.sum()).isEqualByComparingTo("400");
+        assertThat(first.min()).isEqualByComparingTo("100");
+        assertThat(first.max()).isEqualByComparingTo("300");
+        assertThat(first.average()).isEqualByComparingTo("200");
+    }
+
+    @Test
+    public void whenStatsByDayWithFilter_thenOnlyMatchingOrdersAreCounted() throws Exception {
+        Order order = createPersistedOrder();
+        saveOrder(order.getClient(), "Test product 2", 50);
+
+        OrderStatsResponse response = objectMapper.readValue(mockMvc.perform(get("/api/v2/order/stats")
+                                .param("groupBy", OrderStatsGroupBy.DAY.name())
+                                .param("productName", "Test product 1"))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString(),
+                OrderStatsResponse.class);
+
+        assertThat(response.getStats()).hasSize(1);
+        assertThat(response.getStats().get(0).key())
+                .isEqualTo(OrderStatsGroupBy.DAY.truncate(order.getCreateAt()).toString());
+        assertThat(response.getStats().get(0).count()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenDeleteByEmptyProductSearch_thenRejectedAndNothingDeleted() throws Exception {
+        Order order = createPersistedOrder();
+        saveOrder(order.getClient(), "Test product 2", 50);
+
+        mockMvc.perform(delete("/api/v2/order/filter").param("productPrefix", ""))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/v2/order/filter").param("productContains", " "))
+                .andExpect(status().isBadRequest());
+
+        assertThat(orderRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenDeleteByIds_thenOnlyListedOrdersAreDeleted() throws Exception {
+        Order first = createPersistedOrder();
+        saveOrder(first.getClient(), "Test product 2", 50);
+        Order third = orderRepository.save(Order.builder()
+                .product("Test product 3")
+                .cost(BigDecimal.valueOf(150))
+                .client(first.getClient())
+                .build());
+
+        mockMvc.perform(delete("/api/v2/order").param("ids", first.getId() + "," + third.getId()))
+                .andExpect(status().isNoContent());
+
+        assertThat(orderRepository.findAll()).extracting(Order::getProduct).containsExactly("Test product 2");
+    }
+
+    @Test
+    public void whenDeleteByFilter_thenOnlyMatchingOrdersAreDeleted() throws Exception {
+        Order order = createPersistedOrder();
+        saveOrder(order.getClient(), "Test product 1", 300);
+        saveOrder(order.getClient(), "Test product 2", 50);
+
+        mockMvc.perform(delete("/api/v2/order/filter")
+                        .param("productName", "Test product 1")
+                        .param("maxCost", "200"))
+                .andExpect(status().isNoContent());
+
+        assertThat(orderRepository.findAll()).extracting(Order::getCost)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactlyInAnyOrder(BigDecimal.valueOf(300), BigDecimal.valueOf(50));
+    }
+
+    @Test
+    public void whenDeleteByFilterWithoutCriteria_thenRejectedAndNothingDeleted() throws Exception {
+        Order order = createPersistedOrder();
+        saveOrder(order.getClient(), "Test product 2", 50);
+
+        mockMvc.perform(delete("/api/v2/order/filter"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(orderRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenWalkFilterByCursor_thenEveryOrderIsVisitedOnceInKeyOrder() throws Exception {
+        Order first = createPersistedOrder();
+        for (int i = 2; i <= 7; i++) {
+            saveOrder(first.getClient(), "Test product " + i, i * 100L);
+        }
+        List<Order> orders = orderRepository.findAll(Sort.by("id"));
+        setCreateAt(orders.subList(1, 5), orders.get(1).getCreateAt());
+
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/v2/order/filter").param("pageSize", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            OrderListResponse page = objectMapper.readValue(mockMvc.perform(request)
+                            .andExpect(status().isOk())
+                            .andReturn().getResponse().getContentAsString(),
+                    OrderListResponse.class);
+            page.getOrders().forEach(order -> visited.add(order.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(visited).containsExactlyElementsOf(orders.stream().map(Order::getId).toList());
+    }
+
+    @Test
+    public void whenFilterByMalformedCursor_thenReturnBadRequest() throws Exception {
+        createPersistedOrder();
+
+        mockMvc.perform(get("/api/v2/order/filter")
+                        .param("pageSize", "2")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void whenFilterByPageNumberAndCursor_thenReturnBadRequest() throws Exception {
+        Order order = createPersistedOrder();
+
+        mockMvc.perform(get("/api/v2/order/filter")
+                        .param("pageSize", "2")
+                        .param("pageNumber", "0")
+                        .param("cursor", OrderCursor.of(order).encode()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void whenExportByFilter_thenOneNdjsonLinePerMatchingOrder() throws Exception {
+        Order first = createPersistedOrder();
+        for (int i = 2; i <= 5; i++) {
+            saveOrder(first.getClient(), "Test product 1", i * 100L);
+        }
+        saveOrder(first.getClient(), "Test product 2", 50);
+        List<Long> expectedIds = orderRepository.findAll().stream()
+                .filter(order -> order.getProduct().equals("Test product 1"))
+                .map(Order::getId)
+                .toList();
+
+        MvcResult started = mockMvc.perform(get("/api/v2/order/export").param("productName", "Test product 1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<OrderResponse> exported = objectMapper.readerFor(OrderResponse.class)
+                .<OrderResponse>readValues(body)
+                .readAll();
+
+        assertThat(body.lines().toList()).hasSize(expectedIds.size());
+        assertThat(exported).extracting(OrderResponse::getId).containsExactlyInAnyOrderElementsOf(expectedIds);
+    }
+
+    /**
+     * Одинаковое время создания нескольким заказам: сами сохранения получают разные отметки.
+     */
+    private void setCreateAt(List<Order> orders, Instant createAt) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.createQuery("update orders o set o.createAt = :createAt where o.id in :ids")
+                    .setParameter("createAt", createAt)
+                    .setParameter("ids", orders.stream().map(Order::getId).toList())
+                    .executeUpdate();
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void saveOrder(Client client, String product, long cost) {
+        orderRepository.save(Order.builder()
+                .product(product)
+                .cost(BigDecimal.valueOf(cost))
+                .client(client)
+                .build());
+    }
+
+    private Order createPersistedOrder() {
+        Client client = clientRepository.save(Client.builder().name("Client 1").build());
+
+        return orderRepository.save(Order.builder()
+                .product("Test product 1")
+                .cost(BigDecimal.valueOf(100))
+                .client(client)
+                .build());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.rest.web.correlation;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CorrelationIdFilterTest {
+
+    @Test
+    public void whenStateless_thenOnlyLookupOfExistingSessionIsAllowed() throws Exception {
+        HttpServletRequest request = filteredRequest(true);
+
+        assertThat(request.getSession(false)).isNull();
+        assertThatThrownBy(request::getSession)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sessions are disabled");
+        assertThatThrownBy(() -> request.getSession(true))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void whenNotStateless_thenSessionIsCreated() throws Exception {
+        assertThat(filteredRequest(false).getSession()).isNotNull();
+    }
+
+    private static HttpServletRequest filteredRequest(boolean stateless) throws Exception {
+        AtomicReference<HttpServletRequest> filtered = new AtomicReference<>();
+        new CorrelationIdFilter(stateless).doFilter(new MockHttpServletRequest("GET", "/api/v2/order"),
+                new MockHttpServletResponse(),
+                (request, response) -> filtered.set((HttpServletRequest) request));
+
+        return filtered.get();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.rest.web.filter;
+
+import com.example.rest.web.apikey.ApiKeyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClientApiFilterCheckerTest {
+
+    private static final String BILLING_KEY = "billing-secret";
+
+    private static final String REPORTING_KEY = "reporting-secret";
+
+    @TempDir
+    Path directory;
+
+    private Path keysFile;
+
+    private ApiKeyRegistry registry;
+
+    private ClientApiFilterChecker filter;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        keysFile = directory.resolve("api-keys.properties");
+        writeKeys(1, List.of("billing.sha256=" + sha256(BILLING_KEY), "billing.rate=1", "billing.burst=1"));
+
+        registry = new ApiKeyRegistry(new SimpleMeterRegistry(), keysFile.toString(), "", 100, 200);
+        filter = new ClientApiFilterChecker(registry);
+    }
+
+    @Test
+    public void whenKeyIsPresented_thenItIsFoundByItsHash() throws Exception {
+        assertThat(registry.find(BILLING_KEY).name()).isEqualTo("billing");
+        assertThat(registry.find(sha256(BILLING_KEY))).isNull();
+        assertThat(registry.find(REPORTING_KEY)).isNull();
+        assertThat(registry.find(null)).isNull();
+    }
+
+    @Test
+    public void whenKeyIsUnknown_thenBadRequestWithoutCallingChain() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = perform(REPORTING_KEY, chain);
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    public void whenRateIsExceeded_thenTooManyRequestsWithRetryAfter() throws Exception {
+        assertThat(perform(BILLING_KEY, new MockFilterChain()).getStatus()).isEqualTo(200);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = perform(BILLING_KEY, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(registry.find(BILLING_KEY).throttled().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void whenKeysFileChanges_thenKeysAreReloadedAndLimiterStateIsKept() throws Exception {
+        assertThat(perform(BILLING_KEY, new MockFilterChain()).getStatus()).isEqualTo(200);
+
+        writeKeys(2, List.of("billing.sha256=" + sha256(BILLING_KEY), "billing.rate=1", "billing.burst=1",
+                "reporting.sha256=" + sha256(REPORTING_KEY)));
+        registry.reloadIfChanged();
+
+        assertThat(registry.find(REPORTING_KEY).name()).isEqualTo("reporting");
+        assertThat(perform(REPORTING_KEY, new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(perform(BILLING_KEY, new MockFilterChain()).getStatus()).isEqualTo(429);
+
+        writeKeys(3, List.of("reporting.sha256=" + sha256(REPORTING_KEY)));
+        registry.reloadIfChanged();
+
+        assertThat(registry.find(BILLING_KEY)).isNull();
+        assertThat(perform(BILLING_KEY, new MockFilterChain()).getStatus()).isEqualTo(400);
+    }
+
+    private MockHttpServletResponse perform(String key, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/order");
+        request.addHeader("X-Client-Api-Key", key);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        return response;
+    }
+
+    /**
+     * Время изменения задаётся явно: перезагрузка сравнивает его, а запись в пределах
+     * одной отметки файловой системы его бы не сдвинула.
+     */
+    private void writeKeys(long modifiedSeconds, List<String> lines) throws Exception {
+        Files.write(keysFile, lines, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(keysFile, FileTime.fromMillis(modifiedSeconds * 1000));
+    }
+
+    private static String sha256(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}